@@ -12,7 +12,7 @@ import org.terasology.structureTemplates.util.BlockRegionTransform;
 public class BlockRegionTransformComponent implements Component<BlockRegionTransformComponent> {
     public int counterClockWiseHorizontal90DegreeRotations = 0;
 
-    public Vector3i offset;
+    public Vector3i offset = new Vector3i();
 
     @Override
     public void copyFrom(BlockRegionTransformComponent other) {
@@ -0,0 +1,34 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.components;
+
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.structureTemplates.events.StructureBlocksSpawnedEvent;
+
+/**
+ * This component can be added to a structure template to exchange its placement algorithm with one that places the
+ * blocks without animation, but spread over multiple ticks. Each tick at most the specified amount of blocks
+ * gets placed and the placement stops for that tick once the specified time has been spent.
+ *
+ * The {@link StructureBlocksSpawnedEvent} gets sent once all blocks have been placed.
+ *
+ * The template must also have a {@link SpawnBlockRegionsComponent}.
+ */
+public class BudgetedPlacementAlgorithmComponent implements Component<BudgetedPlacementAlgorithmComponent> {
+    /**
+     * Maximum number of blocks that get placed per tick.
+     */
+    public int maxBlocksPerTick = 20000;
+
+    /**
+     * Once this many milliseconds have been spent placing blocks within a tick, the placement continues
+     * in the next tick.
+     */
+    public long maxMillisecondsPerTick = 5;
+
+    @Override
+    public void copyFrom(BudgetedPlacementAlgorithmComponent other) {
+        this.maxBlocksPerTick = other.maxBlocksPerTick;
+        this.maxMillisecondsPerTick = other.maxMillisecondsPerTick;
+    }
+}
@@ -24,15 +24,29 @@ import java.util.stream.Collectors;
  * The region will be transformed by what got specified in the {@link CheckSpawnConditionEvent}.
  *
  * The condition prefab must contain the component {@link BlockPredicateComponent}.
+ *
+ * The checks are not necessarily performed in the specified order: Checks that failed recently and checks with
+ * small regions are performed first, so that a failing check is found quickly. A check without condition ends the
+ * list of checks.
  */
 public class CheckBlockRegionConditionComponent implements Component<CheckBlockRegionConditionComponent> {
     public List<BlockRegionConditionCheck> checksToPerform;
 
+    /**
+     * If true, the regions get checked in parallel on multiple threads. Worth it for templates with multiple large
+     * check regions. Like for sequential checks, checks that failed often get started first, and of the failing
+     * checks that got completed, the one that comes first in that order gets reported.
+     *
+     * The predicates of the conditions must be safe to be called from other threads.
+     */
+    public boolean checkInParallel;
+
     @Override
     public void copyFrom(CheckBlockRegionConditionComponent other) {
         this.checksToPerform = other.checksToPerform.stream()
                 .map(BlockRegionConditionCheck::copy)
                 .collect(Collectors.toList());
+        this.checkInParallel = other.checkInParallel;
     }
 
     @MappedContainer
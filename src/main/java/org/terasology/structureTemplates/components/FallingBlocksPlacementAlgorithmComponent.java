@@ -2,12 +2,36 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.structureTemplates.components;
 
-import org.terasology.gestalt.entitysystem.component.EmptyComponent;
+import org.terasology.gestalt.entitysystem.component.Component;
 
 /**
  * This component can be added to a structure template to exchange its placement algorithm with one
  * where you can see blocks falling down and forming the new structure.
  */
-public class FallingBlocksPlacementAlgorithmComponent extends EmptyComponent<FallingBlocksPlacementAlgorithmComponent> {
+public class FallingBlocksPlacementAlgorithmComponent implements Component<FallingBlocksPlacementAlgorithmComponent> {
+    /**
+     * Structures with more blocks don't let their blocks fall one after another. Instead each layer of blocks falls
+     * down at once, starting with the lowest layer.
+     */
+    public int maxIndividuallyFallingBlocks = 1000;
 
+    /**
+     * Clients further away from the structure don't show the falling blocks. The blocks just appear once they have
+     * been placed.
+     */
+    public float maxAnimationDistance = 128;
+
+    /**
+     * The number of blocks that clients show falling at once per structure. When more blocks start falling at the
+     * same time, like the layers of large structures, only an evenly spread selection of them is shown. The other
+     * blocks just appear once they have been placed.
+     */
+    public int maxVisibleFallingBlocks = 256;
+
+    @Override
+    public void copyFrom(FallingBlocksPlacementAlgorithmComponent other) {
+        this.maxIndividuallyFallingBlocks = other.maxIndividuallyFallingBlocks;
+        this.maxAnimationDistance = other.maxAnimationDistance;
+        this.maxVisibleFallingBlocks = other.maxVisibleFallingBlocks;
+    }
 }
@@ -0,0 +1,135 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.components;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.network.FieldReplicateType;
+import org.terasology.engine.network.Replicate;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.reflection.MappedContainer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Drives the fall animation of all blocks of a structure that gets placed via the
+ * {@link FallingBlocksPlacementAlgorithmComponent}.
+ *
+ * The whole schedule gets replicated once. Clients show the falling blocks based on it, while the server places each
+ * block once its fall is over. The entity gets destroyed when all blocks have been placed.
+ */
+@Replicate(FieldReplicateType.SERVER_TO_CLIENT)
+public class FallingBlocksStructureComponent implements Component<FallingBlocksStructureComponent> {
+
+    /**
+     * Game time at which the schedule starts. The times of the {@link #fallingBlocks} are relative to it.
+     */
+    @Replicate(FieldReplicateType.SERVER_TO_CLIENT)
+    public long startGameTimeInMs;
+
+    /**
+     * The block URIs as strings as it looks like {@link BlockUri} does not get synchronized yet. The falling blocks
+     * reference them by index.
+     */
+    @Replicate(FieldReplicateType.SERVER_TO_CLIENT)
+    public List<String> blockUris = Lists.newArrayList();
+
+    /**
+     * Sorted by the time the blocks reach their target position.
+     */
+    @Replicate(FieldReplicateType.SERVER_TO_CLIENT)
+    public List<FallingBlock> fallingBlocks = Lists.newArrayList();
+
+    /**
+     * Copy of {@link FallingBlocksPlacementAlgorithmComponent#maxAnimationDistance} of the template, as clients don't
+     * know the template.
+     */
+    @Replicate(FieldReplicateType.SERVER_TO_CLIENT)
+    public float maxAnimationDistance;
+
+    /**
+     * Copy of {@link FallingBlocksPlacementAlgorithmComponent#maxVisibleFallingBlocks} of the template.
+     */
+    @Replicate(FieldReplicateType.SERVER_TO_CLIENT)
+    public int maxVisibleFallingBlocks;
+
+    /**
+     * Relative to {@link #startGameTimeInMs}: When the structure counts as completely spawned.
+     */
+    public long completionDelayInMs;
+
+    /**
+     * Index of the first of the {@link #fallingBlocks} that has not been placed yet. Gets updated by the server when
+     * the entity gets deactivated or the world saved, as blocks don't get placed while the entity is inactive.
+     */
+    public int nextBlockIndex;
+
+    /**
+     * The structure template that gets spawned. Template entities are usually not persistent, so after the world
+     * got loaded again the template gets looked up via {@link #structureTemplatePrefab}.
+     */
+    public EntityRef structureTemplate = EntityRef.NULL;
+
+    /**
+     * The prefab of the structure template, if it got created from one.
+     */
+    public Prefab structureTemplatePrefab;
+
+    @Override
+    public void copyFrom(FallingBlocksStructureComponent other) {
+        this.startGameTimeInMs = other.startGameTimeInMs;
+        this.blockUris = Lists.newArrayList(other.blockUris);
+        this.fallingBlocks = other.fallingBlocks.stream()
+                .map(FallingBlock::copy)
+                .collect(Collectors.toList());
+        this.maxAnimationDistance = other.maxAnimationDistance;
+        this.maxVisibleFallingBlocks = other.maxVisibleFallingBlocks;
+        this.completionDelayInMs = other.completionDelayInMs;
+        this.nextBlockIndex = other.nextBlockIndex;
+        this.structureTemplate = other.structureTemplate;
+        this.structureTemplatePrefab = other.structureTemplatePrefab;
+    }
+
+    @MappedContainer
+    public static class FallingBlock {
+        /**
+         * Absolute position at which the block gets placed.
+         */
+        public Vector3i targetPosition;
+        /**
+         * Index of the block in {@link FallingBlocksStructureComponent#blockUris}.
+         */
+        public int blockIndex;
+        /**
+         * Relative to {@link FallingBlocksStructureComponent#startGameTimeInMs}: When the block starts to fall.
+         */
+        public long startDelayInMs;
+        public long fallDurationInMs;
+
+        public FallingBlock(Vector3i targetPosition, int blockIndex, long startDelayInMs, long fallDurationInMs) {
+            this.targetPosition = targetPosition;
+            this.blockIndex = blockIndex;
+            this.startDelayInMs = startDelayInMs;
+            this.fallDurationInMs = fallDurationInMs;
+        }
+
+        public FallingBlock() {
+        }
+
+        /**
+         * @return relative to {@link FallingBlocksStructureComponent#startGameTimeInMs}: When the block reaches its
+         * target position.
+         */
+        public long getStopDelayInMs() {
+            return startDelayInMs + fallDurationInMs;
+        }
+
+        FallingBlock copy() {
+            return new FallingBlock(new Vector3i(targetPosition), blockIndex, startDelayInMs, fallDurationInMs);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.components;
+
+import org.terasology.gestalt.entitysystem.component.EmptyComponent;
+import org.terasology.structureTemplates.interfaces.SpawnedStructureIndex;
+
+/**
+ * A marker component for structure templates that should not be picked by a {@link PendingStructureSpawnComponent}
+ * when the bounding box of their {@link SpawnBlockRegionsComponent} would intersect that of a structure that got
+ * spawned before.
+ *
+ * The check only compares bounding boxes and thus doesn't need to look at any block. The spawned structures are
+ * looked up via the {@link SpawnedStructureIndex}.
+ */
+public class NoOverlapWithSpawnedStructuresComponent extends EmptyComponent<NoOverlapWithSpawnedStructuresComponent> {
+}
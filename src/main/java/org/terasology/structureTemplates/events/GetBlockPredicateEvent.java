@@ -12,10 +12,56 @@ import java.util.function.Predicate;
  * Can be sent to entities with the {@link BlockPredicateComponent} to get a {@link Predicate} for {@link Block}s.
  *
  * The event is consumable so that systems hae the oppertunity to prevent lower priority systems from running.
+ *
+ * The resulting predicate gets cached per condition prefab if all handlers added their condition via
+ * {@link #and(Predicate)}. Handlers whose condition depends on more than the block and the components of the
+ * condition entity must use {@link #andNotCacheable(Predicate)} instead. Handlers that assign {@link #predicate}
+ * directly make the result not cacheable too.
  */
 public class GetBlockPredicateEvent extends AbstractConsumableEvent {
+    private static final Predicate<Block> ANY_BLOCK = block -> true;
+
     /**
      * Gets modified by event handlers. Returns true by default
      */
-    public Predicate<Block> predicate = block -> true;
+    public Predicate<Block> predicate = ANY_BLOCK;
+
+    /** The predicate as it was after the last call of {@link #and(Predicate)} */
+    private Predicate<Block> declaredPredicate = ANY_BLOCK;
+
+    private boolean cacheable = true;
+
+    /**
+     * Combines the current predicate with the given condition. If no handler restricted the predicate yet, the
+     * condition replaces it, so that e.g. a compiled predicate gets returned as it is.
+     *
+     * The condition must only depend on the block and on the components of the condition entity, as the result
+     * gets cached.
+     */
+    public void and(Predicate<Block> condition) {
+        if (predicate != declaredPredicate) {
+            cacheable = false;
+        }
+        if (predicate == ANY_BLOCK) {
+            predicate = condition;
+        } else {
+            predicate = predicate.and(condition);
+        }
+        declaredPredicate = predicate;
+    }
+
+    /**
+     * Like {@link #and(Predicate)}, but prevents the resulting predicate from being cached.
+     */
+    public void andNotCacheable(Predicate<Block> condition) {
+        and(condition);
+        cacheable = false;
+    }
+
+    /**
+     * @return true if the resulting predicate can be reused for later checks with the same condition prefab.
+     */
+    public boolean isCacheable() {
+        return cacheable && predicate == declaredPredicate;
+    }
 }
@@ -5,6 +5,7 @@ package org.terasology.structureTemplates.interfaces;
 import org.terasology.engine.entitySystem.prefab.Prefab;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.world.block.Block;
+import org.terasology.structureTemplates.util.BlockIdPredicate;
 
 import java.util.function.Predicate;
 
@@ -14,6 +15,10 @@ import java.util.function.Predicate;
   */
 public interface BlockPredicateProvider {
 
+    /**
+     * The returned predicate may be a {@link BlockIdPredicate}, whose result got computed in advance for all
+     * registered blocks.
+     */
     Predicate<Block> getBlockPredicate(Prefab condition) throws  IllegalArgumentException;
 
     Predicate<Block> getBlockPredicate(String prefabUrn) throws  IllegalArgumentException;
@@ -16,6 +16,8 @@ import java.util.function.Predicate;
 public interface BlockRegionChecker {
 
     /**
+     * The condition may get evaluated only once per block type, so its result must only depend on the block.
+     *
      * @return true of the specified condition is true for the specified region afte the transformation got applied.
      */
     boolean allBlocksMatch(BlockRegion untransformedRegion, BlockRegionTransform transform,
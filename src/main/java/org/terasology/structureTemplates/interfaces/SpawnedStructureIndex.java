@@ -0,0 +1,30 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.interfaces;
+
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent;
+
+import java.util.List;
+
+/**
+ * Knows where structures have been spawned in the world. A structure is represented by the bounding box of the
+ * regions of its {@link SpawnBlockRegionsComponent}.
+ *
+ * The bounding boxes get stored with the world, so that they are still known after a restart. A spawned structure
+ * is not represented by an entity of its own, so the index can't notice when a structure gets destroyed: Once
+ * spawned, a structure stays in the index.
+ */
+public interface SpawnedStructureIndex {
+
+    /**
+     * @return true if the region intersects the bounding box of a spawned structure.
+     */
+    boolean intersectsSpawnedStructure(BlockRegionc region);
+
+    /**
+     * @return the bounding boxes of the spawned structures that intersect the given region. The returned regions
+     * must not be modified.
+     */
+    List<BlockRegionc> getSpawnedStructuresIntersecting(BlockRegionc region);
+}
@@ -52,4 +52,12 @@ public interface StructureTemplateProvider {
      */
     Iterator<EntityRef> iterateStructureTemplatesOfTypeInRandomOrder(Prefab structureTemplateTypePrefab)
             throws IllegalArgumentException;
+
+    /**
+     * Can be used to get a template entity again after the world got loaded, as template entities don't get saved.
+     *
+     * @param structureTemplatePrefab prefab that has the {@link StructureTemplateComponent}.
+     * @return a non persistent entity of the structure template. The same entity gets returned for the same prefab.
+     */
+    EntityRef getTemplateOfPrefab(Prefab structureTemplatePrefab);
 }
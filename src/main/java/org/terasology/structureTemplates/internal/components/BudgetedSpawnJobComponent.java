@@ -0,0 +1,41 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.components;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.structureTemplates.components.BlockRegionTransformComponent;
+import org.terasology.structureTemplates.components.BudgetedPlacementAlgorithmComponent;
+
+/**
+ * Describes a structure whose blocks are being placed by the algorithm of a
+ * {@link BudgetedPlacementAlgorithmComponent}, so that the placement continues after the world got loaded again.
+ *
+ * The entity has also a {@link BlockRegionTransformComponent} with the transformation of the structure.
+ */
+public class BudgetedSpawnJobComponent implements Component<BudgetedSpawnJobComponent> {
+    /**
+     * The structure template whose blocks get placed. Template entities are usually not persistent, so after the
+     * world got loaded again the template gets looked up via {@link #structureTemplatePrefab}.
+     */
+    public EntityRef structureTemplate = EntityRef.NULL;
+
+    /**
+     * The prefab of the structure template, if it got created from one.
+     */
+    public Prefab structureTemplatePrefab;
+
+    /**
+     * The number of blocks, in the order of the placement, that have already been placed. Gets updated before the
+     * world gets saved.
+     */
+    public int placedBlockCount;
+
+    @Override
+    public void copyFrom(BudgetedSpawnJobComponent other) {
+        this.structureTemplate = other.structureTemplate;
+        this.structureTemplatePrefab = other.structureTemplatePrefab;
+        this.placedBlockCount = other.placedBlockCount;
+    }
+}
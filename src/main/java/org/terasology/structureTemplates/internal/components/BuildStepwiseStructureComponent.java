@@ -2,8 +2,8 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.structureTemplates.internal.components;
 
-import org.joml.Vector3i;
 import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockRegion;
 import org.terasology.gestalt.entitysystem.component.Component;
 import org.terasology.reflection.MappedContainer;
 
@@ -12,7 +12,10 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * TODO: add javadoc
+ * Describes the steps in which a structure gets built layer by layer.
+ *
+ * Each step stores the absolute regions of its layer together with their block type, so the state of a growing
+ * structure scales with the number of regions of the template instead of with the number of blocks.
  */
 public class BuildStepwiseStructureComponent implements Component<BuildStepwiseStructureComponent> {
     public List<BuildStep> buildSteps;
@@ -37,25 +40,33 @@ public class BuildStepwiseStructureComponent implements Component<BuildStepwiseS
     }
 
     @MappedContainer
-    public static class BlockToPlace {
-        public Vector3i pos;
+    public static class RegionToPlace {
+        /**
+         * Absolute region with the transformation already applied.
+         */
+        public BlockRegion region;
         public Block block;
 
-        BlockToPlace copy() {
-            BlockToPlace newBlockToPlace = new BlockToPlace();
-            newBlockToPlace.block = this.block;
-            newBlockToPlace.pos = new Vector3i(this.pos);
-            return newBlockToPlace;
+        public RegionToPlace(BlockRegion region, Block block) {
+            this.region = region;
+            this.block = block;
+        }
+
+        public RegionToPlace() {
+        }
+
+        RegionToPlace copy() {
+            return new RegionToPlace(new BlockRegion(this.region), this.block);
         }
     }
 
     @MappedContainer
     public static class BuildStep {
 
-        public List<BlockToPlace> blocksInStep;
+        public List<RegionToPlace> regionsInStep;
 
-        public BuildStep(List<BlockToPlace> blocksInStep) {
-            this.blocksInStep = blocksInStep;
+        public BuildStep(List<RegionToPlace> regionsInStep) {
+            this.regionsInStep = regionsInStep;
         }
 
         public BuildStep() {
@@ -63,7 +74,7 @@ public class BuildStepwiseStructureComponent implements Component<BuildStepwiseS
         }
 
         BuildStep copy() {
-            return new BuildStep(blocksInStep.stream().map(BlockToPlace::copy).collect(Collectors.toList()));
+            return new BuildStep(regionsInStep.stream().map(RegionToPlace::copy).collect(Collectors.toList()));
         }
     }
 }
@@ -0,0 +1,37 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.components;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.structureTemplates.interfaces.SpawnedStructureIndex;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the data of the {@link SpawnedStructureIndex} for one horizontal area of the world. There is one entity
+ * with this component per area that contains spawned structures.
+ */
+public class SpawnedStructuresComponent implements Component<SpawnedStructuresComponent> {
+
+    /**
+     * The area of the world, in units of the bucket size of the index. The y coordinate is always 0.
+     */
+    public Vector3i bucket = new Vector3i();
+
+    /**
+     * Absolute bounding boxes of the spawned structures whose minimum corner is within the area.
+     */
+    public List<BlockRegion> boundingBoxes = Lists.newArrayList();
+
+    @Override
+    public void copyFrom(SpawnedStructuresComponent other) {
+        this.bucket = new Vector3i(other.bucket);
+        this.boundingBoxes = other.boundingBoxes.stream()
+                .map(BlockRegion::new)
+                .collect(Collectors.toList());
+    }
+}
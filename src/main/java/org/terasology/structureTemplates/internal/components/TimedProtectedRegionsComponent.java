@@ -0,0 +1,23 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.components;
+
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.structureTemplates.components.ProtectRegionsForAFewHoursComponent;
+import org.terasology.structureTemplates.components.ProtectedRegionsComponent;
+
+/**
+ * Marks an entity whose {@link ProtectedRegionsComponent} protects regions only for a limited time, e.g. due to a
+ * {@link ProtectRegionsForAFewHoursComponent}. The entity gets destroyed once the protection ended.
+ */
+public class TimedProtectedRegionsComponent implements Component<TimedProtectedRegionsComponent> {
+    /**
+     * Game time in milliseconds at which the protection of all regions of the entity ends.
+     */
+    public long expiryTime;
+
+    @Override
+    public void copyFrom(TimedProtectedRegionsComponent other) {
+        this.expiryTime = other.expiryTime;
+    }
+}
@@ -2,8 +2,11 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.structureTemplates.internal.systems;
 
+import org.joml.Vector3i;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.engine.entitySystem.prefab.Prefab;
 import org.terasology.engine.entitySystem.prefab.PrefabManager;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
@@ -15,6 +18,9 @@ import org.terasology.engine.world.WorldProvider;
 import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockManager;
 import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.chunks.Chunks;
 import org.terasology.gestalt.assets.ResourceUrn;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
 import org.terasology.structureTemplates.components.BlockPredicateComponent;
@@ -25,12 +31,19 @@ import org.terasology.structureTemplates.events.CheckSpawnConditionEvent;
 import org.terasology.structureTemplates.events.GetBlockPredicateEvent;
 import org.terasology.structureTemplates.interfaces.BlockPredicateProvider;
 import org.terasology.structureTemplates.interfaces.BlockRegionChecker;
+import org.terasology.structureTemplates.util.BlockIdPredicate;
 import org.terasology.structureTemplates.util.BlockRegionTransform;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 /**
  * System powering  {@link CheckBlockRegionConditionComponent}.
@@ -56,29 +69,25 @@ public class BlockRegionConditionSystem extends BaseComponentSystem implements B
     @In
     private BlockManager blockManager;
 
-    private Map<ResourceUrn, EntityRef> prefabUrnToEntityMap = new HashMap<>();
+    @In
+    private ChunkProvider chunkProvider;
+
+    /**
+     * The entity and, if it was declared cacheable, the result of the {@link GetBlockPredicateEvent} by condition
+     * prefab.
+     */
+    private Map<ResourceUrn, CachedCondition> cachedConditions = new HashMap<>();
+
+    /**
+     * The predicates of {@link RequiredBlockPropertiesComponent}s, evaluated in advance for all registered blocks.
+     */
+    private Map<EntityRef, BlockIdPredicate> compiledPropertyPredicates = new HashMap<>();
+
+    private Map<EntityRef, CheckStatistics> checkStatistics = new HashMap<>();
 
     @Override
     public boolean allBlocksMatch(BlockRegion untransformedRegion, BlockRegionTransform transform, Predicate<Block> condition) {
-        BlockRegion region = transform.transformRegion(untransformedRegion);
-        return allBlocksInAABBMatch(region.minX(), region.maxX(), region.minY(), region.maxY(), region.minZ(),
-                region.maxZ(), condition, transform);
-    }
-
-    private boolean allBlocksInAABBMatch(int minX, int maxX, int minY, int maxY, int minZ, int maxZ,
-                                         Predicate<Block> condition,  BlockRegionTransform transform) {
-        for (int x = minX; x <= maxX; x++) {
-            for (int y = minY; y <= maxY; y++) {
-                for (int z = minZ; z <= maxZ; z++) {
-                    Block untransformedBlock = worldProvider.getBlock(x, y, z);
-                    Block transformedBlock = transform.transformBlock(untransformedBlock);
-                    if (!condition.test(transformedBlock)) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return new RegionScan(untransformedRegion, transform, condition, false).allBlocksMatch(() -> false);
     }
 
 
@@ -95,21 +104,105 @@ public class BlockRegionConditionSystem extends BaseComponentSystem implements B
     @ReceiveEvent
     public void onCheckSpawnConditionEvent(CheckSpawnConditionEvent event, EntityRef entity,
                                           CheckBlockRegionConditionComponent conditionComponent) {
-        for (BlockRegionConditionCheck checkToPerform: conditionComponent.checksToPerform) {
-            Prefab conditionPrefab = checkToPerform.condition;
-            if (conditionPrefab == null) {
+        List<BlockRegionConditionCheck> checks = checksToPerform(conditionComponent);
+        CheckStatistics statistics = getCheckStatistics(entity, checks);
+        if (conditionComponent.checkInParallel) {
+            checkInParallel(event, checks, statistics);
+            return;
+        }
+        for (int index : statistics.getCheckOrder()) {
+            BlockRegionConditionCheck checkToPerform = checks.get(index);
+            boolean match = allBlocksMatch(checkToPerform.region, event.getBlockRegionTransform(),
+                    checkToPerform.condition);
+            statistics.recordResult(index, match);
+            if (!match) {
+                preventSpawn(event, checkToPerform);
                 return;
             }
-            BlockRegion relativeRegion = checkToPerform.region;
-            if (!allBlocksMatch(relativeRegion,  event.getBlockRegionTransform(), conditionPrefab)) {
-                event.setPreventSpawn(true);
-                BlockRegion absoluteRegion = event.getBlockRegionTransform().transformRegion(relativeRegion);
-                event.setSpawnPreventingRegion(absoluteRegion);
-                event.setFailedSpawnCondition(conditionPrefab);
-                event.consume();
-                return;
+        }
+    }
+
+    private CheckStatistics getCheckStatistics(EntityRef entity, List<BlockRegionConditionCheck> checks) {
+        CheckStatistics statistics = checkStatistics.get(entity);
+        if (statistics == null || statistics.getCheckCount() != checks.size()) {
+            statistics = new CheckStatistics(checks);
+            checkStatistics.put(entity, statistics);
+        }
+        return statistics;
+    }
+
+    @ReceiveEvent
+    public void onCheckBlockRegionConditionChanged(OnChangedComponent event, EntityRef entity,
+                                                   CheckBlockRegionConditionComponent conditionComponent) {
+        checkStatistics.remove(entity);
+    }
+
+    @ReceiveEvent
+    public void onBeforeRemoveCheckBlockRegionCondition(BeforeRemoveComponent event, EntityRef entity,
+                                                        CheckBlockRegionConditionComponent conditionComponent) {
+        checkStatistics.remove(entity);
+    }
+
+    /**
+     * @return the checks till the first check without condition, as no checks get performed after it.
+     */
+    private static List<BlockRegionConditionCheck> checksToPerform(CheckBlockRegionConditionComponent component) {
+        List<BlockRegionConditionCheck> checks = new ArrayList<>();
+        for (BlockRegionConditionCheck checkToPerform: component.checksToPerform) {
+            if (checkToPerform.condition == null) {
+                break;
             }
+            checks.add(checkToPerform);
         }
+        return checks;
+    }
+
+    /**
+     * Prepares the checks on the game thread, where the predicates and chunks get fetched, and scans the regions in
+     * parallel. The game thread waits for the scans, so chunks don't get unloaded meanwhile. Each chunk is locked
+     * while it gets scanned, as other threads like the lighting may modify it.
+     *
+     * The scans get started in the order of the statistics and, once a check failed, the other scans stop. Of the
+     * failed checks, the first one in that order gets reported.
+     */
+    private void checkInParallel(CheckSpawnConditionEvent event, List<BlockRegionConditionCheck> checks,
+                                 CheckStatistics statistics) {
+        int[] order = statistics.getCheckOrder();
+        RegionScan[] scans = new RegionScan[order.length];
+        for (int position = 0; position < order.length; position++) {
+            BlockRegionConditionCheck checkToPerform = checks.get(order[position]);
+            scans[position] = new RegionScan(checkToPerform.region, event.getBlockRegionTransform(),
+                    getBlockPredicate(checkToPerform.condition), true);
+        }
+        AtomicBoolean checkFailed = new AtomicBoolean();
+        boolean[] matches = new boolean[scans.length];
+        IntStream.range(0, scans.length).parallel().forEach(position -> {
+            matches[position] = scans[position].allBlocksMatch(checkFailed::get);
+            if (!matches[position]) {
+                checkFailed.set(true);
+            }
+        });
+        BlockRegionConditionCheck failedCheck = null;
+        for (int position = 0; position < scans.length; position++) {
+            if (!scans[position].isCompleted()) {
+                continue;
+            }
+            statistics.recordResult(order[position], matches[position]);
+            if (!matches[position] && failedCheck == null) {
+                failedCheck = checks.get(order[position]);
+            }
+        }
+        if (failedCheck != null) {
+            preventSpawn(event, failedCheck);
+        }
+    }
+
+    private void preventSpawn(CheckSpawnConditionEvent event, BlockRegionConditionCheck failedCheck) {
+        event.setPreventSpawn(true);
+        BlockRegion absoluteRegion = event.getBlockRegionTransform().transformRegion(failedCheck.region);
+        event.setSpawnPreventingRegion(absoluteRegion);
+        event.setFailedSpawnCondition(failedCheck.condition);
+        event.consume();
     }
 
     public boolean allBlocksMatch(BlockRegion untransformedRegion, BlockRegionTransform transform, Prefab prefab) {
@@ -119,17 +212,29 @@ public class BlockRegionConditionSystem extends BaseComponentSystem implements B
 
     @Override
     public Predicate<Block> getBlockPredicate(Prefab conditionPrefab) {
-        EntityRef conditionEntity = prefabUrnToEntityMap.get(conditionPrefab.getUrn());
-        if (conditionEntity == null) {
+        CachedCondition cachedCondition = cachedConditions.get(conditionPrefab.getUrn());
+        if (cachedCondition != null && !cachedCondition.isCreatedFrom(conditionPrefab.iterateComponents())) {
+            // the prefab got reloaded, the entity and predicate got created from the old version
+            compiledPropertyPredicates.remove(cachedCondition.entity);
+            cachedCondition.entity.destroy();
+            cachedCondition = null;
+        }
+        if (cachedCondition == null) {
             if (conditionPrefab.hasComponent(BlockPredicateComponent.class)) {
-                conditionEntity = createEntityForPrefab(conditionPrefab);
+                cachedCondition = createEntityForPrefab(conditionPrefab);
             } else {
                 throw new IllegalArgumentException(String.format("Prefab %s does not have the component %s",
                         conditionPrefab.getName(), BlockPredicateComponent.class.getSimpleName()));
             }
         }
+        if (cachedCondition.predicate != null) {
+            return cachedCondition.predicate;
+        }
         GetBlockPredicateEvent getBlockPredicateEvent = new GetBlockPredicateEvent();
-        conditionEntity.send(getBlockPredicateEvent);
+        cachedCondition.entity.send(getBlockPredicateEvent);
+        if (getBlockPredicateEvent.isCacheable()) {
+            cachedCondition.predicate = getBlockPredicateEvent.predicate;
+        }
         return getBlockPredicateEvent.predicate;
     }
 
@@ -142,31 +247,348 @@ public class BlockRegionConditionSystem extends BaseComponentSystem implements B
         return getBlockPredicate(prefab);
     }
 
-    private EntityRef createEntityForPrefab(Prefab conditionPrefab) {
+    private CachedCondition createEntityForPrefab(Prefab conditionPrefab) {
         EntityRef entityRef = entityManager.create(conditionPrefab);
-        prefabUrnToEntityMap.put(conditionPrefab.getUrn(), entityRef);
-        return entityRef;
+        CachedCondition cachedCondition = new CachedCondition(conditionPrefab.iterateComponents(), entityRef);
+        cachedConditions.put(conditionPrefab.getUrn(), cachedCondition);
+        return cachedCondition;
+    }
+
+    /**
+     * The entity created for a version of a condition prefab, together with its predicate if that can be cached.
+     *
+     * Prefabs get reloaded in place, so the prefab instance stays the same. The reload replaces the components of
+     * the prefab with new instances though, which allows to detect it.
+     */
+    static final class CachedCondition {
+        private final List<Object> prefabComponents = new ArrayList<>();
+        final EntityRef entity;
+        Predicate<Block> predicate;
+
+        CachedCondition(Iterable<?> prefabComponents, EntityRef entity) {
+            prefabComponents.forEach(this.prefabComponents::add);
+            this.entity = entity;
+        }
+
+        /**
+         * @return true if the given components of the prefab are the same instances as the ones the entity got
+         * created from.
+         */
+        boolean isCreatedFrom(Iterable<?> currentPrefabComponents) {
+            int index = 0;
+            for (Object component : currentPrefabComponents) {
+                if (index >= prefabComponents.size() || prefabComponents.get(index) != component) {
+                    return false;
+                }
+                index++;
+            }
+            return index == prefabComponents.size();
+        }
+    }
+
+    /**
+     * Remembers how often the checks of a template failed, in order to perform the checks in an order that finds a
+     * failing check with little work: The check that failed last comes first, then the checks get ordered by
+     * region volume divided by the estimated failure probability.
+     *
+     * The order gets sorted again only when a different check failed than last time, or after
+     * {@link #RESULTS_PER_REORDERING} results, as the failure rates change slowly.
+     */
+    static final class CheckStatistics {
+        private static final int RESULTS_PER_REORDERING = 64;
+
+        private final long[] volumes;
+        private final int[] attempts;
+        private final int[] failures;
+        private final int[] order;
+        private int lastFailedIndex = -1;
+        private int resultsSinceOrdering;
+        private boolean orderOutdated;
+
+        CheckStatistics(List<BlockRegionConditionCheck> checks) {
+            volumes = new long[checks.size()];
+            attempts = new int[checks.size()];
+            failures = new int[checks.size()];
+            order = new int[checks.size()];
+            for (int i = 0; i < checks.size(); i++) {
+                volumes[i] = checks.get(i).region.volume();
+                order[i] = i;
+            }
+            sortOrder();
+        }
+
+        int getCheckCount() {
+            return volumes.length;
+        }
+
+        /**
+         * @return the indices of the checks in the order they should be performed. Must not be modified.
+         */
+        int[] getCheckOrder() {
+            if (orderOutdated) {
+                sortOrder();
+            }
+            return order;
+        }
+
+        void recordResult(int index, boolean match) {
+            attempts[index]++;
+            resultsSinceOrdering++;
+            boolean failedCheckChanged = false;
+            if (!match) {
+                failures[index]++;
+                failedCheckChanged = lastFailedIndex != index;
+                lastFailedIndex = index;
+            }
+            // Sorted lazily, as the caller may still iterate over the order
+            if (failedCheckChanged || resultsSinceOrdering >= RESULTS_PER_REORDERING) {
+                orderOutdated = true;
+            }
+        }
+
+        /**
+         * Insertion sort, as there are only a few checks and it needs no boxing.
+         */
+        private void sortOrder() {
+            resultsSinceOrdering = 0;
+            orderOutdated = false;
+            for (int i = 1; i < order.length; i++) {
+                int index = order[i];
+                int j = i - 1;
+                while (j >= 0 && comesBefore(index, order[j])) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = index;
+            }
+        }
+
+        private boolean comesBefore(int index, int otherIndex) {
+            if (index == lastFailedIndex || otherIndex == lastFailedIndex) {
+                return index == lastFailedIndex;
+            }
+            return expectedCostPerFailure(index) < expectedCostPerFailure(otherIndex);
+        }
+
+        private double expectedCostPerFailure(int index) {
+            // Laplace smoothing, so that checks without history get a failure probability of 0.5
+            double failureProbability = (failures[index] + 1.0) / (attempts[index] + 2.0);
+            return volumes[index] / failureProbability;
+        }
+    }
+
+    /**
+     * Check of a region against a condition. The chunks of the region get fetched when the scan gets created.
+     *
+     * Chunks can get modified by other threads, e.g. by chunk generation and lighting. A scan that is meant to run on
+     * another thread thus locks each chunk while it reads its blocks.
+     */
+    private final class RegionScan {
+        private final BlockRegion region;
+        private final BlockRegionTransform transform;
+        private final Predicate<Block> condition;
+        private final boolean lockChunks;
+        private final int minChunkX;
+        private final int minChunkY;
+        private final int minChunkZ;
+        private final int maxChunkX;
+        private final int maxChunkY;
+        private final int maxChunkZ;
+        /**
+         * Chunks of the region in x, y, z order, null for chunks that are not loaded.
+         */
+        private final Chunk[] chunks;
+        private boolean completed;
+
+        RegionScan(BlockRegion untransformedRegion, BlockRegionTransform transform, Predicate<Block> condition,
+                   boolean lockChunks) {
+            this.region = transform.transformRegion(untransformedRegion);
+            this.transform = transform;
+            this.condition = condition;
+            this.lockChunks = lockChunks;
+            minChunkX = Math.floorDiv(region.minX(), Chunks.SIZE_X);
+            minChunkY = Math.floorDiv(region.minY(), Chunks.SIZE_Y);
+            minChunkZ = Math.floorDiv(region.minZ(), Chunks.SIZE_Z);
+            maxChunkX = Math.floorDiv(region.maxX(), Chunks.SIZE_X);
+            maxChunkY = Math.floorDiv(region.maxY(), Chunks.SIZE_Y);
+            maxChunkZ = Math.floorDiv(region.maxZ(), Chunks.SIZE_Z);
+            chunks = new Chunk[(maxChunkX - minChunkX + 1) * (maxChunkY - minChunkY + 1) * (maxChunkZ - minChunkZ + 1)];
+            Vector3i chunkPos = new Vector3i();
+            int index = 0;
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+                    for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                        chunks[index++] = chunkProvider.getChunk(chunkPos.set(chunkX, chunkY, chunkZ));
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return the part of the region within the chunk, in coordinates relative to the chunk.
+         */
+        private BlockRegion getPartWithinChunk(int chunkX, int chunkY, int chunkZ) {
+            int offsetX = chunkX * Chunks.SIZE_X;
+            int offsetY = chunkY * Chunks.SIZE_Y;
+            int offsetZ = chunkZ * Chunks.SIZE_Z;
+            return new BlockRegion(
+                    Math.max(region.minX(), offsetX) - offsetX,
+                    Math.max(region.minY(), offsetY) - offsetY,
+                    Math.max(region.minZ(), offsetZ) - offsetZ,
+                    Math.min(region.maxX(), offsetX + Chunks.SIZE_X - 1) - offsetX,
+                    Math.min(region.maxY(), offsetY + Chunks.SIZE_Y - 1) - offsetY,
+                    Math.min(region.maxZ(), offsetZ + Chunks.SIZE_Z - 1) - offsetZ);
+        }
+
+        /**
+         * Checks the region chunk by chunk. The condition gets evaluated only once per block id, as the block ids of
+         * the chunks get scanned directly. The scan stops at the first block that doesn't match.
+         *
+         * @param stopRequested gets polled between rows of blocks. Once it returns true, the scan stops without a
+         *                      result and {@link #isCompleted()} stays false.
+         */
+        boolean allBlocksMatch(BooleanSupplier stopRequested) {
+            BlockIdResults results = new BlockIdResults(condition, transform);
+            int index = 0;
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+                    for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                        Chunk chunk = chunks[index++];
+                        boolean match;
+                        if (chunk == null) {
+                            // same block that the world provider reports for positions in chunks that are not loaded
+                            match = results.matches(blockManager.getBlock(BlockManager.UNLOADED_ID));
+                        } else if (lockChunks) {
+                            chunk.lock();
+                            try {
+                                match = partMatches(chunk, chunkX, chunkY, chunkZ, results, stopRequested);
+                            } finally {
+                                chunk.unlock();
+                            }
+                        } else {
+                            match = partMatches(chunk, chunkX, chunkY, chunkZ, results, stopRequested);
+                        }
+                        if (stopRequested.getAsBoolean()) {
+                            return true;
+                        }
+                        if (!match) {
+                            completed = true;
+                            return false;
+                        }
+                    }
+                }
+            }
+            completed = true;
+            return true;
+        }
+
+        /**
+         * @return false if a block of the part of the region within the chunk doesn't match. Returns true when
+         * stopped early.
+         */
+        private boolean partMatches(Chunk chunk, int chunkX, int chunkY, int chunkZ, BlockIdResults results,
+                                    BooleanSupplier stopRequested) {
+            BlockRegion part = getPartWithinChunk(chunkX, chunkY, chunkZ);
+            for (int x = part.minX(); x <= part.maxX(); x++) {
+                for (int y = part.minY(); y <= part.maxY(); y++) {
+                    if (stopRequested.getAsBoolean()) {
+                        return true;
+                    }
+                    for (int z = part.minZ(); z <= part.maxZ(); z++) {
+                        if (!results.matches(chunk.getBlockId(x, y, z))) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return true if the last call of {@link #allBlocksMatch(BooleanSupplier)} determined a result.
+         */
+        boolean isCompleted() {
+            return completed;
+        }
+    }
+
+    /**
+     * Remembers per block id whether the transformed block matches the condition.
+     */
+    private final class BlockIdResults {
+        private static final byte UNKNOWN = 0;
+        private static final byte MATCH = 1;
+        private static final byte NO_MATCH = 2;
+
+        private final Predicate<Block> condition;
+        private final BlockRegionTransform transform;
+        private byte[] resultPerId = new byte[64];
+
+        BlockIdResults(Predicate<Block> condition, BlockRegionTransform transform) {
+            this.condition = condition;
+            this.transform = transform;
+        }
+
+        boolean matches(short blockId) {
+            int index = Short.toUnsignedInt(blockId);
+            if (index >= resultPerId.length) {
+                resultPerId = Arrays.copyOf(resultPerId, Math.max(index + 1, resultPerId.length * 2));
+            }
+            if (resultPerId[index] == UNKNOWN) {
+                resultPerId[index] = condition.test(transform.transformBlock(blockManager.getBlock(blockId)))
+                        ? MATCH : NO_MATCH;
+            }
+            return resultPerId[index] == MATCH;
+        }
+
+        boolean matches(Block untransformedBlock) {
+            return condition.test(transform.transformBlock(untransformedBlock));
+        }
     }
 
     @ReceiveEvent
     public void onGetBlockPropertiesPredicate(GetBlockPredicateEvent event, EntityRef entity,
                                         RequiredBlockPropertiesComponent requiredBlockPropertiesComponent) {
-        final Boolean wantedLiquidValue = requiredBlockPropertiesComponent.liquid;
+        BlockIdPredicate compiledPredicate = compiledPropertyPredicates.get(entity);
+        if (compiledPredicate == null) {
+            compiledPredicate = BlockIdPredicate.compile(createBlockPropertiesPredicate(requiredBlockPropertiesComponent),
+                    blockManager.listRegisteredBlocks());
+            compiledPropertyPredicates.put(entity, compiledPredicate);
+        }
+        event.and(compiledPredicate);
+    }
+
+    @ReceiveEvent
+    public void onRequiredBlockPropertiesChanged(OnChangedComponent event, EntityRef entity,
+                                                 RequiredBlockPropertiesComponent requiredBlockPropertiesComponent) {
+        compiledPropertyPredicates.remove(entity);
+    }
+
+    @ReceiveEvent(components = BlockPredicateComponent.class)
+    public void onConditionEntityChanged(OnChangedComponent event, EntityRef entity) {
+        for (CachedCondition cachedCondition : cachedConditions.values()) {
+            cachedCondition.predicate = null;
+        }
+    }
+
+    private static Predicate<Block> createBlockPropertiesPredicate(RequiredBlockPropertiesComponent component) {
+        Predicate<Block> predicate = block -> true;
+        final Boolean wantedLiquidValue = component.liquid;
         if (wantedLiquidValue != null) {
             Predicate<Block> condition = (block) -> (block.isLiquid() == wantedLiquidValue.booleanValue());
-            event.predicate = event.predicate.and(condition);
+            predicate = predicate.and(condition);
         }
-        final Boolean wantedPenetrableValue = requiredBlockPropertiesComponent.penetrable;
+        final Boolean wantedPenetrableValue = component.penetrable;
         if (wantedPenetrableValue != null) {
             Predicate<Block> condition = (block) -> (block.isPenetrable() == wantedPenetrableValue.booleanValue());
-            event.predicate = event.predicate.and(condition);
+            predicate = predicate.and(condition);
         }
-        final Boolean wantedLoadedValue = requiredBlockPropertiesComponent.loaded;
+        final Boolean wantedLoadedValue = component.loaded;
         if (wantedLoadedValue != null) {
             Predicate<Block> condition = (block) -> ((!block.getURI().equals(BlockManager.UNLOADED_ID))
                     == wantedLoadedValue.booleanValue());
-            event.predicate = event.predicate.and(condition);
+            predicate = predicate.and(condition);
         }
+        return predicate;
     }
 }
-
@@ -0,0 +1,21 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.structureTemplates.util.BlockRegionTransform;
+
+/**
+ * Owns the lifecycle of the table behind {@link BlockRegionTransform#transformBlock}: Blocks get rotated on servers
+ * and clients, so the table gets cleared at the end of every game, to not keep the blocks of that game alive.
+ */
+@RegisterSystem(RegisterMode.ALWAYS)
+public class BlockTransformTableSystem extends BaseComponentSystem {
+
+    @Override
+    public void shutdown() {
+        BlockRegionTransform.clearBlockTransformTable();
+    }
+}
@@ -0,0 +1,227 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.entitySystem.entity.EntityBuilder;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.event.EventPriority;
+import org.terasology.engine.entitySystem.event.Priority;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.Block;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.structureTemplates.components.BlockRegionTransformComponent;
+import org.terasology.structureTemplates.components.BudgetedPlacementAlgorithmComponent;
+import org.terasology.structureTemplates.components.IgnoreAirBlocksComponent;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent;
+import org.terasology.structureTemplates.events.SpawnStructureEvent;
+import org.terasology.structureTemplates.events.StructureBlocksSpawnedEvent;
+import org.terasology.structureTemplates.events.StructureSpawnStartedEvent;
+import org.terasology.structureTemplates.interfaces.StructureTemplateProvider;
+import org.terasology.structureTemplates.internal.components.BudgetedSpawnJobComponent;
+import org.terasology.structureTemplates.util.BlockRegionTransform;
+import org.terasology.structureTemplates.util.RegionBlockMap;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Powers the {@link BudgetedPlacementAlgorithmComponent}: Places the blocks of a structure in slices over multiple
+ * ticks so that large structures don't cause long server ticks.
+ *
+ * Structures get placed one after another in the order their spawning got requested. Each structure is described
+ * by a persistent entity with a {@link BudgetedSpawnJobComponent}, so that the placement continues after the world
+ * got loaded again.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class BudgetedStructureSpawnServerSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    /**
+     * Amount of blocks that get passed to the world provider at once. The time budget gets checked between slices.
+     */
+    static final int BLOCKS_PER_SLICE = 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetedStructureSpawnServerSystem.class);
+
+    @In
+    private WorldProvider worldProvider;
+
+    @In
+    private EntityManager entityManager;
+
+    @In
+    private SpawnPlanCacheSystem spawnPlanCache;
+
+    @In
+    private StructureTemplateProvider structureTemplateProvider;
+
+    private Deque<SpawnJob> pendingJobs = new ArrayDeque<>();
+
+    /**
+     * Takes precedence over the other placement algorithms, as the component gets only added to templates that
+     * should be placed this way.
+     */
+    @Priority(EventPriority.PRIORITY_CRITICAL)
+    @ReceiveEvent
+    public void onSpawnStructureWithBudget(SpawnStructureEvent event, EntityRef entity,
+                                           SpawnBlockRegionsComponent spawnBlockRegionsComponent,
+                                           BudgetedPlacementAlgorithmComponent budgetComponent) {
+        BlockRegionTransform transformation = event.getTransformation();
+        entity.send(new StructureSpawnStartedEvent(transformation));
+
+        BudgetedSpawnJobComponent jobComponent = new BudgetedSpawnJobComponent();
+        jobComponent.structureTemplate = entity;
+        jobComponent.structureTemplatePrefab = entity.getParentPrefab();
+        EntityBuilder entityBuilder = entityManager.newBuilder();
+        entityBuilder.setPersistent(true);
+        entityBuilder.addComponent(transformation.toComponent());
+        entityBuilder.addComponent(jobComponent);
+        // the job gets queued once the entity got activated
+        entityBuilder.build();
+        event.consume();
+    }
+
+    @ReceiveEvent
+    public void onActivatedSpawnJob(OnActivatedComponent event, EntityRef jobEntity,
+                                    BudgetedSpawnJobComponent jobComponent,
+                                    BlockRegionTransformComponent transformComponent) {
+        EntityRef template = jobComponent.structureTemplate;
+        if (!template.exists() && jobComponent.structureTemplatePrefab != null) {
+            template = structureTemplateProvider.getTemplateOfPrefab(jobComponent.structureTemplatePrefab);
+        }
+        SpawnBlockRegionsComponent spawnBlockRegionsComponent = template.getComponent(SpawnBlockRegionsComponent.class);
+        BudgetedPlacementAlgorithmComponent budgetComponent =
+                template.getComponent(BudgetedPlacementAlgorithmComponent.class);
+        if (spawnBlockRegionsComponent == null || budgetComponent == null) {
+            logger.warn("Can't continue placing a structure, as its template {} is gone", template);
+            jobEntity.destroy();
+            return;
+        }
+        BlockRegionTransform transformation = BlockRegionTransform.createFromComponent(transformComponent);
+        RegionBlockMap blocksToPlace = new RegionBlockMap();
+        spawnPlanCache.getPlan(spawnBlockRegionsComponent, transformation).fillRegions(blocksToPlace,
+                transformation.getOffset(), template.hasComponent(IgnoreAirBlocksComponent.class));
+
+        pendingJobs.addLast(new SpawnJob(jobEntity, template, transformation, blocksToPlace,
+                jobComponent.placedBlockCount, budgetComponent));
+    }
+
+    @ReceiveEvent(components = BudgetedSpawnJobComponent.class)
+    public void onBeforeDeactivateSpawnJob(BeforeDeactivateComponent event, EntityRef jobEntity) {
+        pendingJobs.removeIf(job -> job.jobEntity.equals(jobEntity));
+    }
+
+    @Override
+    public void preSave() {
+        for (SpawnJob job : pendingJobs) {
+            BudgetedSpawnJobComponent jobComponent = job.jobEntity.getComponent(BudgetedSpawnJobComponent.class);
+            if (jobComponent != null) {
+                jobComponent.placedBlockCount = job.placedBlockCount;
+                job.jobEntity.saveComponent(jobComponent);
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        pendingJobs.clear();
+    }
+
+    @Override
+    public void update(float delta) {
+        SpawnJob finishedJob = placeBlocksOfNextJob(worldProvider::setBlocks, System::currentTimeMillis);
+        if (finishedJob != null) {
+            finishedJob.structureTemplate.send(new StructureBlocksSpawnedEvent(finishedJob.transformation));
+            finishedJob.jobEntity.destroy();
+        }
+    }
+
+    void addJob(SpawnJob job) {
+        pendingJobs.addLast(job);
+    }
+
+    /**
+     * Places blocks of the first pending job within its budget. The tick ends when the job is done, so that the
+     * next job starts with its own budget in the next tick.
+     *
+     * @return the job if it got finished and removed, otherwise null.
+     */
+    SpawnJob placeBlocksOfNextJob(Consumer<Map<Vector3ic, Block>> blockSetter, LongSupplier clock) {
+        SpawnJob job = pendingJobs.peekFirst();
+        if (job == null || !job.placeBlocks(blockSetter, clock)) {
+            return null;
+        }
+        pendingJobs.removeFirst();
+        return job;
+    }
+
+    static final class SpawnJob {
+        private final EntityRef jobEntity;
+        private final EntityRef structureTemplate;
+        private final BlockRegionTransform transformation;
+        private final Iterator<Map.Entry<Vector3ic, Block>> remainingBlocks;
+        private final int maxBlocksPerTick;
+        private final long maxMillisecondsPerTick;
+        private int placedBlockCount;
+
+        /**
+         * @param placedBlockCount the number of blocks that already got placed, e.g. before the world got saved.
+         */
+        SpawnJob(EntityRef jobEntity, EntityRef structureTemplate, BlockRegionTransform transformation,
+                 RegionBlockMap blocksToPlace, int placedBlockCount,
+                 BudgetedPlacementAlgorithmComponent budgetComponent) {
+            this.jobEntity = jobEntity;
+            this.structureTemplate = structureTemplate;
+            this.transformation = transformation;
+            this.remainingBlocks = blocksToPlace.entrySet().iterator();
+            this.maxBlocksPerTick = Math.max(1, budgetComponent.maxBlocksPerTick);
+            this.maxMillisecondsPerTick = Math.max(1, budgetComponent.maxMillisecondsPerTick);
+            // The iteration order of a map filled with the same regions is the same, so these blocks got placed
+            while (this.placedBlockCount < placedBlockCount && remainingBlocks.hasNext()) {
+                remainingBlocks.next();
+                this.placedBlockCount++;
+            }
+        }
+
+        int getPlacedBlockCount() {
+            return placedBlockCount;
+        }
+
+        /**
+         * Places slices of blocks until the block or time budget of a tick is spent.
+         *
+         * @return true if all blocks have been placed.
+         */
+        boolean placeBlocks(Consumer<Map<Vector3ic, Block>> blockSetter, LongSupplier clock) {
+            long startTime = clock.getAsLong();
+            int remainingBudget = maxBlocksPerTick;
+            while (remainingBlocks.hasNext() && remainingBudget > 0
+                    && clock.getAsLong() - startTime < maxMillisecondsPerTick) {
+                Map<Vector3ic, Block> slice = new LinkedHashMap<>();
+                int sliceSize = Math.min(remainingBudget, BLOCKS_PER_SLICE);
+                while (slice.size() < sliceSize && remainingBlocks.hasNext()) {
+                    Map.Entry<Vector3ic, Block> entry = remainingBlocks.next();
+                    slice.put(entry.getKey(), entry.getValue());
+                }
+                remainingBudget -= slice.size();
+                placedBlockCount += slice.size();
+                blockSetter.accept(slice);
+            }
+            return !remainingBlocks.hasNext();
+        }
+    }
+}
@@ -3,7 +3,6 @@
 package org.terasology.structureTemplates.internal.systems;
 
 import org.joml.Vector3f;
-import org.joml.Vector3fc;
 import org.terasology.engine.core.Time;
 import org.terasology.engine.entitySystem.entity.EntityBuilder;
 import org.terasology.engine.entitySystem.entity.EntityManager;
@@ -15,18 +14,30 @@ import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.logic.players.LocalPlayer;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.rendering.assets.material.Material;
+import org.terasology.engine.rendering.assets.mesh.Mesh;
 import org.terasology.engine.rendering.logic.MeshComponent;
 import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockManager;
 import org.terasology.gestalt.assets.management.AssetManager;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
-import org.terasology.structureTemplates.components.FallingBlockComponent;
+import org.terasology.structureTemplates.components.FallingBlocksStructureComponent;
+import org.terasology.structureTemplates.components.FallingBlocksStructureComponent.FallingBlock;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
+/**
+ * Shows the blocks of a {@link FallingBlocksStructureComponent} falling down. Each shown block that is in the air gets
+ * a temporary visual entity. The number of shown blocks per structure is limited by
+ * {@link FallingBlocksStructureComponent#maxVisibleFallingBlocks}.
+ */
 @RegisterSystem(RegisterMode.CLIENT)
 public class FallingBlockPlacementClientSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
 
@@ -35,6 +46,12 @@ public class FallingBlockPlacementClientSystem extends BaseComponentSystem imple
      */
     public static final float FALLING_BLOCK_ACCELERATION_IN_M_PER_MS = -10f / (1000f * 100f);
 
+    /**
+     * How long a block stays visible at its target position, so that it doesn't disappear before the placed block
+     * reached the client.
+     */
+    private static final long VISIBLE_AFTER_LANDING_IN_MS = 1000;
+
     @In
     private Time time;
 
@@ -47,72 +64,214 @@ public class FallingBlockPlacementClientSystem extends BaseComponentSystem imple
     @In
     private AssetManager assetManager;
 
-    private Map<EntityRef, EntityRef> dataToVisualEntityMap = new LinkedHashMap<>();
-
-    @Override
-    public void update(float delta) {
-        for (Map.Entry<EntityRef, EntityRef> entry: dataToVisualEntityMap.entrySet()) {
-            EntityRef dataEntity = entry.getKey();
-            EntityRef visualEntity = entry.getValue();
-
-            LocationComponent visualLocationComponent = visualEntity.getComponent(LocationComponent.class);
-            Vector3fc position = determineVisualFallingBlockPosition(dataEntity);
-            visualLocationComponent.setWorldPosition(position);
-            visualEntity.saveComponent(visualLocationComponent);
-        }
-    }
-
-    private Vector3fc determineVisualFallingBlockPosition(EntityRef dataEntity) {
-        FallingBlockComponent component = dataEntity.getComponent(FallingBlockComponent.class);
-        LocationComponent dataLocationComponent = dataEntity.getComponent(LocationComponent.class);
-        Vector3f finalPosition = dataLocationComponent.getWorldPosition(new Vector3f());
-
-        if (time.getGameTimeInMs() < component.stopGameTimeInMs) {
-            float totalFallDurationInMs = component.stopGameTimeInMs - component.startGameTimeInMs;
-            float totalFallHeight =
-                0.5f * (-FALLING_BLOCK_ACCELERATION_IN_M_PER_MS) * totalFallDurationInMs * totalFallDurationInMs;
+    @In
+    private LocalPlayer localPlayer;
 
-            float fallDuration = (component.startGameTimeInMs - time.getGameTimeInMs());
+    private Map<EntityRef, FallingBlockAnimation> animationPerStructure = new LinkedHashMap<>();
 
-            float amountFallen = 0.5f * (-FALLING_BLOCK_ACCELERATION_IN_M_PER_MS) * fallDuration * fallDuration;
+    /**
+     * The visual entities of all falling blocks of one block type share a mesh, and all share one material. This
+     * avoids asset lookups per falling block and lets the renderer draw them without switching meshes in between.
+     * The cache gets cleared when no animation is playing, so that reloaded assets get picked up.
+     */
+    private Map<Block, Mesh> meshPerBlock = new HashMap<>();
+    private Material terrainMaterial;
 
-            float finalY = finalPosition.y();
-            float initialY = finalY + totalFallHeight;
-            finalPosition.y = initialY - amountFallen;
+    @Override
+    public void update(float delta) {
+        long gameTime = time.getGameTimeInMs();
+        Vector3f playerPosition = localPlayer.getPosition(new Vector3f());
+        for (Map.Entry<EntityRef, FallingBlockAnimation> entry : animationPerStructure.entrySet()) {
+            FallingBlockAnimation animation = entry.getValue();
+            LocationComponent structureLocation = entry.getKey().getComponent(LocationComponent.class);
+            boolean nearPlayer = structureLocation == null || structureLocation.getWorldPosition(new Vector3f())
+                .distanceSquared(playerPosition) <= animation.maxAnimationDistance * animation.maxAnimationDistance;
+            animation.update(gameTime, nearPlayer);
         }
-        return finalPosition;
     }
 
-    @ReceiveEvent
-    public void onActivatedFallingBlockComponent(OnActivatedComponent event, EntityRef dataEntity,
-                                             FallingBlockComponent component, LocationComponent dataLocationComponent) {
+    private EntityRef createVisualEntity(Block block, Vector3f position) {
         EntityBuilder entityBuilder = entityManager.newBuilder();
         entityBuilder.setPersistent(false);
-        Block block = blockManager.getBlock(component.blockUri);
+        if (terrainMaterial == null) {
+            terrainMaterial = assetManager.getAsset("engine:terrain", Material.class).get();
+        }
         MeshComponent meshComponent = new MeshComponent();
-        meshComponent.mesh = block.getMeshGenerator().getStandaloneMesh();
-        meshComponent.material = assetManager.getAsset("engine:terrain", Material.class).get();
+        meshComponent.mesh = meshPerBlock.computeIfAbsent(block, key -> key.getMeshGenerator().getStandaloneMesh());
+        meshComponent.material = terrainMaterial;
         meshComponent.translucent = block.isTranslucent();
         entityBuilder.addComponent(meshComponent);
 
         LocationComponent locationComponent = new LocationComponent();
-        locationComponent.setWorldPosition(determineVisualFallingBlockPosition(dataEntity));
+        locationComponent.setWorldPosition(position);
         locationComponent.setWorldScale(0.9999f);
         entityBuilder.addComponent(locationComponent);
 
-        EntityRef visualEntity = entityBuilder.build();
-        dataToVisualEntityMap.put(dataEntity, visualEntity);
+        return entityBuilder.build();
     }
 
-
     @ReceiveEvent
-    public void onBeforeDeactivateFallingBlockComponent(BeforeDeactivateComponent event, EntityRef dataEntity,
-                                                    FallingBlockComponent component) {
-        EntityRef visualEntity = dataToVisualEntityMap.remove(dataEntity);
-        if (visualEntity != null) {
-            visualEntity.destroy();
+    public void onActivatedFallingBlocksStructure(OnActivatedComponent event, EntityRef structureEntity,
+                                                  FallingBlocksStructureComponent component) {
+        Block[] blocks = new Block[component.blockUris.size()];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = blockManager.getBlock(component.blockUris.get(i));
         }
+        animationPerStructure.put(structureEntity, new FallingBlockAnimation(component, blocks));
     }
 
+    @ReceiveEvent(components = FallingBlocksStructureComponent.class)
+    public void onBeforeDeactivateFallingBlocksStructure(BeforeDeactivateComponent event, EntityRef structureEntity) {
+        FallingBlockAnimation animation = animationPerStructure.remove(structureEntity);
+        if (animation != null) {
+            animation.destroyVisualEntities();
+        }
+        if (animationPerStructure.isEmpty()) {
+            meshPerBlock.clear();
+            terrainMaterial = null;
+        }
+    }
+
+    /**
+     * The animation state of the blocks of one {@link FallingBlocksStructureComponent} in flat arrays, indexed like
+     * its falling blocks.
+     *
+     * Blocks get started in the order of their start time and only the blocks that are currently visible get
+     * updated each frame. Of blocks that start at the same time, at most {@link #maxVisibleBlocks} evenly spread ones
+     * get shown, so that e.g. a large layer doesn't create thousands of entities in one frame.
+     */
+    private final class FallingBlockAnimation {
+        private final long[] startGameTimes;
+        private final long[] hideGameTimes;
+        private final float[] targetX;
+        private final float[] targetY;
+        private final float[] targetZ;
+        /**
+         * The height above the target position from which the block starts falling.
+         */
+        private final float[] fallHeights;
+        private final Block[] blocks;
+        private final EntityRef[] visualEntities;
+        private final LocationComponent[] visualLocations;
+        private final float maxAnimationDistance;
+        private final int maxVisibleBlocks;
+        /**
+         * Whether a block gets shown while it falls. The other blocks just appear once they have been placed.
+         */
+        private final boolean[] shown;
+
+        /**
+         * Block indices sorted by start time.
+         */
+        private final int[] startOrder;
+        private int nextStartOrderIndex;
+        /**
+         * The first {@link #visibleCount} entries are the indices of the blocks that are currently visible.
+         */
+        private final int[] visibleBlocks;
+        private int visibleCount;
+        private final Vector3f position = new Vector3f();
+
+        FallingBlockAnimation(FallingBlocksStructureComponent component, Block[] blocksByIndex) {
+            List<FallingBlock> fallingBlocks = component.fallingBlocks;
+            int count = fallingBlocks.size();
+            startGameTimes = new long[count];
+            hideGameTimes = new long[count];
+            targetX = new float[count];
+            targetY = new float[count];
+            targetZ = new float[count];
+            fallHeights = new float[count];
+            blocks = new Block[count];
+            visualEntities = new EntityRef[count];
+            visualLocations = new LocationComponent[count];
+            visibleBlocks = new int[count];
+            maxAnimationDistance = component.maxAnimationDistance;
+            maxVisibleBlocks = Math.max(1, component.maxVisibleFallingBlocks);
+            for (int i = 0; i < count; i++) {
+                FallingBlock fallingBlock = fallingBlocks.get(i);
+                startGameTimes[i] = component.startGameTimeInMs + fallingBlock.startDelayInMs;
+                hideGameTimes[i] = component.startGameTimeInMs + fallingBlock.getStopDelayInMs()
+                    + VISIBLE_AFTER_LANDING_IN_MS;
+                targetX[i] = fallingBlock.targetPosition.x();
+                targetY[i] = fallingBlock.targetPosition.y();
+                targetZ[i] = fallingBlock.targetPosition.z();
+                float fallDuration = fallingBlock.fallDurationInMs;
+                fallHeights[i] = 0.5f * (-FALLING_BLOCK_ACCELERATION_IN_M_PER_MS) * fallDuration * fallDuration;
+                blocks[i] = blocksByIndex[fallingBlock.blockIndex];
+            }
+            startOrder = IntStream.range(0, count).boxed()
+                .sorted(Comparator.comparingLong(index -> startGameTimes[index]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+            shown = selectShownBlocks();
+        }
 
+        /**
+         * Selects every n-th block of the blocks with the same start time, so that at most {@link #maxVisibleBlocks}
+         * of them are shown.
+         */
+        private boolean[] selectShownBlocks() {
+            boolean[] selection = new boolean[startOrder.length];
+            int groupStart = 0;
+            while (groupStart < startOrder.length) {
+                long startGameTime = startGameTimes[startOrder[groupStart]];
+                int groupEnd = groupStart + 1;
+                while (groupEnd < startOrder.length && startGameTimes[startOrder[groupEnd]] == startGameTime) {
+                    groupEnd++;
+                }
+                int stride = (groupEnd - groupStart + maxVisibleBlocks - 1) / maxVisibleBlocks;
+                for (int i = groupStart; i < groupEnd; i += stride) {
+                    selection[startOrder[i]] = true;
+                }
+                groupStart = groupEnd;
+            }
+            return selection;
+        }
+
+        /**
+         * @param animate if false, no blocks are shown.
+         */
+        void update(long gameTime, boolean animate) {
+            while (nextStartOrderIndex < startOrder.length
+                && startGameTimes[startOrder[nextStartOrderIndex]] <= gameTime) {
+                int index = startOrder[nextStartOrderIndex++];
+                if (!animate || !shown[index] || blocks[index] == null || hideGameTimes[index] <= gameTime
+                    || visibleCount >= maxVisibleBlocks) {
+                    continue;
+                }
+                visualEntities[index] = createVisualEntity(blocks[index], determinePosition(index, gameTime));
+                visualLocations[index] = visualEntities[index].getComponent(LocationComponent.class);
+                visibleBlocks[visibleCount++] = index;
+            }
+
+            int i = 0;
+            while (i < visibleCount) {
+                int index = visibleBlocks[i];
+                if (!animate || hideGameTimes[index] <= gameTime) {
+                    visualEntities[index].destroy();
+                    visualEntities[index] = null;
+                    visualLocations[index] = null;
+                    visibleBlocks[i] = visibleBlocks[--visibleCount];
+                    continue;
+                }
+                // The visual entities are local only, so their location component gets changed in place
+                visualLocations[index].setWorldPosition(determinePosition(index, gameTime));
+                i++;
+            }
+        }
+
+        private Vector3f determinePosition(int index, long gameTime) {
+            float timeFallen = gameTime - startGameTimes[index];
+            float amountFallen = 0.5f * (-FALLING_BLOCK_ACCELERATION_IN_M_PER_MS) * timeFallen * timeFallen;
+            float heightAboveTarget = Math.max(0, fallHeights[index] - amountFallen);
+            return position.set(targetX[index], targetY[index] + heightAboveTarget, targetZ[index]);
+        }
+
+        void destroyVisualEntities() {
+            for (int i = 0; i < visibleCount; i++) {
+                visualEntities[visibleBlocks[i]].destroy();
+            }
+            visibleCount = 0;
+        }
+    }
 }
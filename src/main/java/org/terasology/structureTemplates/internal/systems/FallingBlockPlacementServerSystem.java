@@ -11,42 +11,49 @@ import org.terasology.engine.core.Time;
 import org.terasology.engine.entitySystem.entity.EntityBuilder;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
-import org.terasology.engine.logic.delay.DelayManager;
-import org.terasology.engine.logic.delay.DelayedActionTriggeredEvent;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.network.NetworkComponent;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.world.WorldProvider;
 import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockManager;
-import org.terasology.gestalt.assets.management.AssetManager;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.structureTemplates.components.BlockRegionTransformComponent;
 import org.terasology.structureTemplates.components.CompletionTimeComponent;
-import org.terasology.structureTemplates.components.FallingBlockComponent;
 import org.terasology.structureTemplates.components.FallingBlocksPlacementAlgorithmComponent;
-import org.terasology.structureTemplates.components.PrepareFallingBlockEntityComponent;
+import org.terasology.structureTemplates.components.FallingBlocksStructureComponent;
+import org.terasology.structureTemplates.components.FallingBlocksStructureComponent.FallingBlock;
 import org.terasology.structureTemplates.events.GetStructureTemplateBlocksForMidAirEvent;
 import org.terasology.structureTemplates.events.SpawnStructureEvent;
 import org.terasology.structureTemplates.events.StructureBlocksSpawnedEvent;
 import org.terasology.structureTemplates.events.StructureSpawnStartedEvent;
+import org.terasology.structureTemplates.interfaces.StructureTemplateProvider;
 import org.terasology.structureTemplates.util.BlockRegionTransform;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
 
 @RegisterSystem(RegisterMode.AUTHORITY)
-public class FallingBlockPlacementServerSystem extends BaseComponentSystem {
+public class FallingBlockPlacementServerSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
     private static final Logger logger = LoggerFactory.getLogger(FallingBlockPlacementServerSystem.class);
-    private static final String COMPLETE_STRUCTURE_ACTION_ID = "StructureTemplates:FallingBlockPlacementServerSystem:completeStructure";
-    private static final String PLACE_BLOCK_ACTION_ID = "StructureTemplates:FallingBlockPlacementServerSystem:placeBlock";
-    private static final String DESTROY_ENTITY_ACTION_ID = "StructureTemplates:FallingBlockPlacementServerSystem:destroyEntity";
-    private static final String CREATE_ENTITY_ACTION_ID = "StructureTemplates:FallingBlockPlacementServerSystem:createEntity";
-    private static final String COMPLETE_CREATE_ENTITY_ACTION_ID = "StructureTemplates:FallingBlockPlacementServerSystem:completeCreateEntity";
+
+    /**
+     * Time between the last block reaching its target and the structure counting as spawned.
+     */
+    private static final long COMPLETION_DELAY_AFTER_LAST_BLOCK_IN_MS = 100;
 
     @In
     private Time time;
@@ -54,21 +61,19 @@ public class FallingBlockPlacementServerSystem extends BaseComponentSystem {
     @In
     private EntityManager entityManager;
 
-    @In
-    private AssetManager assetManager;
-
-    @In
-    private DelayManager delayManager;
-
     @In
     private BlockManager blockManager;
 
     @In
     private WorldProvider worldProvider;
 
-    private long maxStopGameTimeInMs = 0;
+    @In
+    private StructureTemplateProvider structureTemplateProvider;
 
-    private BlockRegionTransform transformation;
+    /**
+     * Placement progress of the active entities with a {@link FallingBlocksStructureComponent}.
+     */
+    private Map<EntityRef, PlacementProgress> progressPerStructure = new LinkedHashMap<>();
 
     /**
      * This overrides the normal instant structure template spawning with one where an animation of falling blocks
@@ -76,90 +81,130 @@ public class FallingBlockPlacementServerSystem extends BaseComponentSystem {
      * the event {@link StructureBlocksSpawnedEvent} gets send when the fall down animation has been played for
      * all blocks. So there might be a few seconds between the events.
      */
-    @ReceiveEvent(components = FallingBlocksPlacementAlgorithmComponent.class)
-    public void onSpawnStructureEventWithBlocksPriority(SpawnStructureEvent event, EntityRef entity) {
-        transformation = event.getTransformation();
-        entity.send(new StructureSpawnStartedEvent(event.getTransformation()));
-        GetStructureTemplateBlocksForMidAirEvent getBlocksEvent =  new GetStructureTemplateBlocksForMidAirEvent(event.getTransformation());
+    @ReceiveEvent
+    public void onSpawnStructureEventWithBlocksPriority(SpawnStructureEvent event, EntityRef entity,
+                                                        FallingBlocksPlacementAlgorithmComponent algorithmComponent) {
+        BlockRegionTransform transformation = event.getTransformation();
+        entity.send(new StructureSpawnStartedEvent(transformation));
+        GetStructureTemplateBlocksForMidAirEvent getBlocksEvent =  new GetStructureTemplateBlocksForMidAirEvent(transformation);
         entity.send(getBlocksEvent);
         Map<Vector3i, Block> blocksToPlace = getBlocksEvent.getBlocksToPlace();
 
         replacePlacementLocationWithAir(blocksToPlace.keySet());
 
-        createFallingBlockEntities(blocksToPlace, entity);
+        blocksToPlace.values().removeIf(block -> block.getURI().equals(BlockManager.AIR_ID));
+        List<FallingBlock> fallingBlocks;
+        if (blocksToPlace.size() > algorithmComponent.maxIndividuallyFallingBlocks) {
+            fallingBlocks = scheduleLayerByLayer(blocksToPlace);
+        } else {
+            fallingBlocks = scheduleBlockByBlock(blocksToPlace);
+        }
+        createFallingBlocksStructureEntity(blocksToPlace, fallingBlocks, entity, transformation, algorithmComponent);
         event.consume();
     }
 
-    void createFallingBlockEntities(Map<Vector3i, Block> blocksToPlace, EntityRef entityRef) {
+    /**
+     * The blocks start falling one after another; blocks further away from the smallest position fall from higher
+     * up.
+     *
+     * @param blocksToPlace blocks without air.
+     * @return the falling blocks with the block index still unset.
+     */
+    List<FallingBlock> scheduleBlockByBlock(Map<Vector3i, Block> blocksToPlace) {
+        List<FallingBlock> fallingBlocks = new ArrayList<>(blocksToPlace.size());
         Vector3i minPos = getSmallestPlacementPosition(blocksToPlace);
         long delay = 0;
-        for (Map.Entry<Vector3i, Block> entry: blocksToPlace.entrySet()) {
-            if (!entry.getValue().getURI().equals(BlockManager.AIR_ID)) {
-
-                float distanceToMin = entry.getKey().gridDistance(minPos);
-                float additionalOffsetPerDistanceToMin = 1f;
-                float fallDistance = additionalOffsetPerDistanceToMin * distanceToMin;
-                long fallDurationInMs =
-                        Math.round(Math.sqrt(2 * fallDistance / (-FallingBlockPlacementClientSystem.FALLING_BLOCK_ACCELERATION_IN_M_PER_MS)));
-
-                delay += fallDurationInMs;
-
-                PrepareFallingBlockEntityComponent prepareBlockEntityComponent = new PrepareFallingBlockEntityComponent();
-                prepareBlockEntityComponent.block = entry.getValue();
-                prepareBlockEntityComponent.targetPosition = entry.getKey();
-                prepareBlockEntityComponent.fallDurationInMs = fallDurationInMs;
+        for (Vector3i position : blocksToPlace.keySet()) {
+            float distanceToMin = position.gridDistance(minPos);
+            float additionalOffsetPerDistanceToMin = 1f;
+            float fallDistance = additionalOffsetPerDistanceToMin * distanceToMin;
+            long fallDurationInMs = calculateFallDuration(fallDistance);
+
+            delay += fallDurationInMs;
+            fallingBlocks.add(new FallingBlock(new Vector3i(position), 0, delay, fallDurationInMs));
+        }
+        return fallingBlocks;
+    }
 
-                EntityRef entity = entityManager.create(prepareBlockEntityComponent);
-                delayManager.addDelayedAction(entity, CREATE_ENTITY_ACTION_ID, delay);
+    /**
+     * All blocks of a layer fall down at once, so that large structures don't take ages to fall into place. The
+     * layers start falling one after another from the bottom up; higher layers fall from higher up.
+     *
+     * @param blocksToPlace blocks without air.
+     * @return the falling blocks with the block index still unset.
+     */
+    List<FallingBlock> scheduleLayerByLayer(Map<Vector3i, Block> blocksToPlace) {
+        List<FallingBlock> fallingBlocks = new ArrayList<>(blocksToPlace.size());
+        int minY = getSmallestPlacementPosition(blocksToPlace).y();
+        NavigableMap<Integer, List<Vector3i>> positionsPerLayer = new TreeMap<>();
+        for (Vector3i position : blocksToPlace.keySet()) {
+            positionsPerLayer.computeIfAbsent(position.y(), key -> new ArrayList<>()).add(position);
+        }
+        long delay = 0;
+        for (Map.Entry<Integer, List<Vector3i>> layer : positionsPerLayer.entrySet()) {
+            long fallDurationInMs = calculateFallDuration(layer.getKey() - minY + 1);
+            delay += fallDurationInMs;
+            for (Vector3i position : layer.getValue()) {
+                fallingBlocks.add(new FallingBlock(new Vector3i(position), 0, delay, fallDurationInMs));
             }
         }
-        CompletionTimeComponent completionTimeComponent = new CompletionTimeComponent();
-        completionTimeComponent.completionDelay = delay + 100;
-        entityRef.addComponent(completionTimeComponent);
+        return fallingBlocks;
+    }
 
-        delayManager.addDelayedAction(entityRef, COMPLETE_CREATE_ENTITY_ACTION_ID, delay + 100);
+    private static long calculateFallDuration(float fallDistance) {
+        return Math.round(Math.sqrt(2 * fallDistance / (-FallingBlockPlacementClientSystem.FALLING_BLOCK_ACCELERATION_IN_M_PER_MS)));
     }
 
-    Vector3i getSmallestPlacementPosition(Map<Vector3i, Block> blocksToPlace) {
-        Vector3i minPos = new Vector3i(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
-        for (Map.Entry<Vector3i, Block> entry: blocksToPlace.entrySet()) {
-            minPos.min(entry.getKey());
+    /**
+     * Creates a single entity that describes when which block falls down.
+     */
+    void createFallingBlocksStructureEntity(Map<Vector3i, Block> blocksToPlace, List<FallingBlock> fallingBlocks,
+                                            EntityRef structureTemplate, BlockRegionTransform transformation,
+                                            FallingBlocksPlacementAlgorithmComponent algorithmComponent) {
+        FallingBlocksStructureComponent fallingBlocksComponent = new FallingBlocksStructureComponent();
+        fallingBlocksComponent.startGameTimeInMs = time.getGameTimeInMs();
+        fallingBlocksComponent.maxAnimationDistance = algorithmComponent.maxAnimationDistance;
+        fallingBlocksComponent.maxVisibleFallingBlocks = algorithmComponent.maxVisibleFallingBlocks;
+        fallingBlocksComponent.structureTemplate = structureTemplate;
+        fallingBlocksComponent.structureTemplatePrefab = structureTemplate.getParentPrefab();
+
+        Map<Block, Integer> blockIndices = new HashMap<>();
+        long lastStopDelay = 0;
+        for (FallingBlock fallingBlock : fallingBlocks) {
+            Block block = blocksToPlace.get(fallingBlock.targetPosition);
+            fallingBlock.blockIndex = blockIndices.computeIfAbsent(block, key -> {
+                fallingBlocksComponent.blockUris.add(key.getURI().toString());
+                return fallingBlocksComponent.blockUris.size() - 1;
+            });
+            lastStopDelay = Math.max(lastStopDelay, fallingBlock.getStopDelayInMs());
         }
-        return minPos;
-    }
+        fallingBlocks.sort(Comparator.comparingLong(FallingBlock::getStopDelayInMs));
+        fallingBlocksComponent.fallingBlocks = fallingBlocks;
+        fallingBlocksComponent.completionDelayInMs = lastStopDelay + COMPLETION_DELAY_AFTER_LAST_BLOCK_IN_MS;
+
+        CompletionTimeComponent completionTimeComponent = new CompletionTimeComponent();
+        completionTimeComponent.completionDelay = fallingBlocksComponent.completionDelayInMs;
+        structureTemplate.addOrSaveComponent(completionTimeComponent);
 
-    private void createEntityThatTriggersTheCompletionEvent(EntityRef structureTemplate, BlockRegionTransform transform) {
-        /**EntityBuilder entityBuilder = entityManager.newBuilder();
+        EntityBuilder entityBuilder = entityManager.newBuilder();
         entityBuilder.setPersistent(true);
         entityBuilder.addComponent(new NetworkComponent());
-
         LocationComponent locationComponent = new LocationComponent();
-        locationComponent.setWorldPosition(transform.transformVector3i(new Vector3i(0,0,0)).toVector3f());
+        locationComponent.setWorldPosition(new Vector3f(transformation.getOffset()));
         entityBuilder.addComponent(locationComponent);
-
-        TimedStructureCompletionComponent timedStructureCompletionComponent = new TimedStructureCompletionComponent();
-        timedStructureCompletionComponent.gameTimeInMsWhenStructureGetsCompleted = maxStopGameTimeInMs;
-        timedStructureCompletionComponent.structureTemplate = structureTemplate;
-        entityBuilder.addComponent(timedStructureCompletionComponent);
-
-
-        entityBuilder.addComponent(transform.toComponent());
-
-        EntityRef entityRef = entityBuilder.build();**/
-        delayManager.addDelayedAction(structureTemplate, COMPLETE_STRUCTURE_ACTION_ID, 0);
+        entityBuilder.addComponent(transformation.toComponent());
+        entityBuilder.addComponent(fallingBlocksComponent);
+        entityBuilder.build();
     }
 
-    @ReceiveEvent
-    public void onDelayedStructureCompletionTrigger(DelayedActionTriggeredEvent event, EntityRef structureTemplate) {
-        if (!event.getActionId().equals(COMPLETE_STRUCTURE_ACTION_ID)) {
-            return;
+    Vector3i getSmallestPlacementPosition(Map<Vector3i, Block> blocksToPlace) {
+        Vector3i minPos = new Vector3i(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        for (Map.Entry<Vector3i, Block> entry: blocksToPlace.entrySet()) {
+            minPos.min(entry.getKey());
         }
-        //structureTemplate.send(new SpawnBlocksOfStructureTemplateEvent(transform));
-
-        structureTemplate.send(new StructureBlocksSpawnedEvent(transformation));
+        return minPos;
     }
 
-
     private void replacePlacementLocationWithAir(Set<Vector3i> locations) {
         Map<Vector3ic, Block> airBlocksToPlace = new HashMap<>();
         Block air = blockManager.getBlock(BlockManager.AIR_ID);
@@ -170,60 +215,102 @@ public class FallingBlockPlacementServerSystem extends BaseComponentSystem {
     }
 
     @ReceiveEvent
-    public void createFallingBlockEntity(DelayedActionTriggeredEvent event, EntityRef entityRef,
-                                         PrepareFallingBlockEntityComponent fallingBlockEntityComponent) {
-        if (!event.getActionId().equals(CREATE_ENTITY_ACTION_ID)) {
-            return;
+    public void onActivatedFallingBlocksStructure(OnActivatedComponent event, EntityRef entity,
+                                                  FallingBlocksStructureComponent component) {
+        Block[] blocks = new Block[component.blockUris.size()];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = blockManager.getBlock(component.blockUris.get(i));
+            if (blocks[i] == null) {
+                logger.error("Block with url not found, block placement of fallen blocks skipped: {}",
+                        component.blockUris.get(i));
+            }
         }
-        EntityBuilder entityBuilder = entityManager.newBuilder();
-        entityBuilder.setPersistent(true);
-        entityBuilder.addComponent(new NetworkComponent());
-
-
-        LocationComponent locationComponent = new LocationComponent();
-        locationComponent.setWorldPosition(new Vector3f(fallingBlockEntityComponent.targetPosition));
-        entityBuilder.addComponent(locationComponent);
-
-        long fallDurationInMs = fallingBlockEntityComponent.fallDurationInMs;
-
-        FallingBlockComponent fallingBlockComponent = new FallingBlockComponent();
-        fallingBlockComponent.startGameTimeInMs = time.getGameTimeInMs();
-        fallingBlockComponent.stopGameTimeInMs = fallingBlockComponent.startGameTimeInMs  + fallDurationInMs;
-
-        maxStopGameTimeInMs = Math.max(maxStopGameTimeInMs, fallingBlockComponent.stopGameTimeInMs);
+        // Blocks whose fall ended while the entity was inactive get placed with the next update
+        progressPerStructure.put(entity, new PlacementProgress(blocks, component.nextBlockIndex));
+    }
 
-        fallingBlockComponent.blockUri = fallingBlockEntityComponent.block.getURI().toString();
-        entityBuilder.addComponent(fallingBlockComponent);
+    @ReceiveEvent
+    public void onBeforeDeactivateFallingBlocksStructure(BeforeDeactivateComponent event, EntityRef entity,
+                                                         FallingBlocksStructureComponent component) {
+        PlacementProgress progress = progressPerStructure.remove(entity);
+        if (progress != null) {
+            component.nextBlockIndex = progress.nextBlockIndex;
+            entity.saveComponent(component);
+        }
+    }
 
-        EntityRef entity = entityBuilder.build();
-        delayManager.addDelayedAction(entity, PLACE_BLOCK_ACTION_ID, fallDurationInMs);
+    @Override
+    public void preSave() {
+        for (Map.Entry<EntityRef, PlacementProgress> entry : progressPerStructure.entrySet()) {
+            EntityRef entity = entry.getKey();
+            FallingBlocksStructureComponent component = entity.getComponent(FallingBlocksStructureComponent.class);
+            if (component != null) {
+                component.nextBlockIndex = entry.getValue().nextBlockIndex;
+                entity.saveComponent(component);
+            }
+        }
     }
 
-    @ReceiveEvent
-    public void onEntityCreationComplete(DelayedActionTriggeredEvent event, EntityRef entityRef) {
-        if (!event.getActionId().equals(COMPLETE_CREATE_ENTITY_ACTION_ID)) {
+    @Override
+    public void update(float delta) {
+        if (progressPerStructure.isEmpty()) {
             return;
         }
-        createEntityThatTriggersTheCompletionEvent(entityRef, transformation);
-    }
+        long gameTime = time.getGameTimeInMs();
+        List<EntityRef> completedStructures = new ArrayList<>();
+        for (Map.Entry<EntityRef, PlacementProgress> entry : progressPerStructure.entrySet()) {
+            EntityRef entity = entry.getKey();
+            PlacementProgress progress = entry.getValue();
+            FallingBlocksStructureComponent component = entity.getComponent(FallingBlocksStructureComponent.class);
+            long elapsedTime = gameTime - component.startGameTimeInMs;
+
+            Map<Vector3ic, Block> landedBlocks = new LinkedHashMap<>();
+            List<FallingBlock> fallingBlocks = component.fallingBlocks;
+            while (progress.nextBlockIndex < fallingBlocks.size()
+                    && fallingBlocks.get(progress.nextBlockIndex).getStopDelayInMs() <= elapsedTime) {
+                FallingBlock fallingBlock = fallingBlocks.get(progress.nextBlockIndex);
+                Block block = progress.blocks[fallingBlock.blockIndex];
+                if (block != null) {
+                    landedBlocks.put(fallingBlock.targetPosition, block);
+                }
+                progress.nextBlockIndex++;
+            }
+            if (!landedBlocks.isEmpty()) {
+                worldProvider.setBlocks(landedBlocks);
+            }
 
-    @ReceiveEvent
-    public void onFallingBlockDelayElapsed(DelayedActionTriggeredEvent event, EntityRef entityRef,
-                        FallingBlockComponent component, LocationComponent locationComponent) {
-        if (event.getActionId().equals(PLACE_BLOCK_ACTION_ID)) {
-            delayManager.addDelayedAction(entityRef, DESTROY_ENTITY_ACTION_ID, 1);
-            Vector3f pos = locationComponent.getWorldPosition(new Vector3f());
-            Block block = blockManager.getBlock(component.blockUri);
-            if (block == null) {
-                logger.error("Block with url not found, block placement of fallen block skipped: " + Objects.toString(component.blockUri));
+            if (progress.nextBlockIndex >= fallingBlocks.size() && elapsedTime >= component.completionDelayInMs) {
+                completedStructures.add(entity);
             }
-            Vector3i roundedPos = new Vector3i(Math.round(pos.x()), Math.round(pos.y()), Math.round(pos.z()));
-            logger.debug("Placing block at " + roundedPos);
-            worldProvider.setBlock(roundedPos, block);
         }
-        if (event.getActionId().equals(DESTROY_ENTITY_ACTION_ID)) {
-            entityRef.destroy();
+
+        for (EntityRef entity : completedStructures) {
+            FallingBlocksStructureComponent component = entity.getComponent(FallingBlocksStructureComponent.class);
+            BlockRegionTransform transformation = BlockRegionTransform.createFromComponent(
+                    entity.getComponent(BlockRegionTransformComponent.class));
+            EntityRef structureTemplate = component.structureTemplate;
+            if (!structureTemplate.exists() && component.structureTemplatePrefab != null) {
+                structureTemplate = structureTemplateProvider.getTemplateOfPrefab(component.structureTemplatePrefab);
+            }
+            entity.destroy();
+            if (structureTemplate.exists()) {
+                structureTemplate.send(new StructureBlocksSpawnedEvent(transformation));
+            } else {
+                logger.warn("Can't report the spawning of a structure, as its template is gone");
+            }
         }
     }
 
+    private static final class PlacementProgress {
+        /**
+         * The blocks of {@link FallingBlocksStructureComponent#blockUris}. Null for blocks that were not found.
+         */
+        private final Block[] blocks;
+        private int nextBlockIndex;
+
+        PlacementProgress(Block[] blocks, int nextBlockIndex) {
+            this.blocks = blocks;
+            this.nextBlockIndex = nextBlockIndex;
+        }
+    }
 }
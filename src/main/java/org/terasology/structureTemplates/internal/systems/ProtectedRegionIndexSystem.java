@@ -0,0 +1,90 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.structureTemplates.components.ProtectedRegionsComponent;
+import org.terasology.structureTemplates.util.BlockRegionIndex;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the regions of all active entities with a {@link ProtectedRegionsComponent} in a spatial index, so that
+ * checking if a block is protected doesn't need to look at every protected region of the world.
+ *
+ * The system runs on clients too, where it indexes the replicated regions. This allows clients to reject
+ * interactions with protected blocks without asking the server.
+ */
+@Share(ProtectedRegionIndexSystem.class)
+@RegisterSystem(RegisterMode.ALWAYS)
+public class ProtectedRegionIndexSystem extends BaseComponentSystem {
+
+    private final BlockRegionIndex<EntityRef> protectedRegionIndex = new BlockRegionIndex<>();
+
+    @Override
+    public void shutdown() {
+        protectedRegionIndex.clear();
+    }
+
+    @ReceiveEvent
+    public void onProtectedRegionsActivated(OnActivatedComponent event, EntityRef entity,
+                                            ProtectedRegionsComponent component) {
+        updateRegionsOf(entity, component);
+    }
+
+    @ReceiveEvent
+    public void onProtectedRegionsChanged(OnChangedComponent event, EntityRef entity,
+                                          ProtectedRegionsComponent component) {
+        updateRegionsOf(entity, component);
+    }
+
+    @ReceiveEvent(components = ProtectedRegionsComponent.class)
+    public void onBeforeDeactivateProtectedRegions(BeforeDeactivateComponent event, EntityRef entity) {
+        protectedRegionIndex.removeAll(entity);
+    }
+
+    private void updateRegionsOf(EntityRef entity, ProtectedRegionsComponent component) {
+        protectedRegionIndex.replaceAll(entity, component.regions != null ? component.regions
+            : Collections.emptyList());
+    }
+
+    /**
+     * @return true if there is no protected region at all.
+     */
+    public boolean isEmpty() {
+        return protectedRegionIndex.isEmpty();
+    }
+
+    public boolean isProtected(Vector3ic position) {
+        return protectedRegionIndex.contains(position);
+    }
+
+    public boolean isProtected(int x, int y, int z) {
+        return protectedRegionIndex.contains(x, y, z);
+    }
+
+    /**
+     * @return true if any block of the region is protected.
+     */
+    public boolean intersectsProtectedRegion(BlockRegionc region) {
+        return protectedRegionIndex.intersects(region);
+    }
+
+    /**
+     * @return the protected regions that intersect the given region. The returned regions must not be modified.
+     */
+    public List<BlockRegionc> getProtectedRegionsIntersecting(BlockRegionc region) {
+        return protectedRegionIndex.getIntersectingRegions(region);
+    }
+}
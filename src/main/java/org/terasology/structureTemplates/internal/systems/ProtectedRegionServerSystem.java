@@ -8,8 +8,6 @@ import org.joml.Vector3i;
 import org.joml.Vector3ic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.terasology.engine.entitySystem.entity.EntityBuilder;
-import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.event.EventPriority;
 import org.terasology.engine.entitySystem.event.Priority;
@@ -19,7 +17,6 @@ import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.logic.characters.events.ActivationRequestDenied;
 import org.terasology.engine.logic.characters.events.AttackEvent;
 import org.terasology.engine.logic.common.ActivateEvent;
-import org.terasology.engine.logic.common.lifespan.LifespanComponent;
 import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.network.ClientComponent;
 import org.terasology.engine.registry.In;
@@ -35,7 +32,6 @@ import org.terasology.structureTemplates.internal.components.NoInteractionWhenPr
 import org.terasology.structureTemplates.util.ProtectedRegionUtility;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -47,14 +43,17 @@ public class ProtectedRegionServerSystem extends BaseComponentSystem {
     private static final Logger logger = LoggerFactory.getLogger(ProtectedRegionServerSystem.class);
 
     @In
-    private EntityManager entityManager;
+    private ProtectedRegionIndexSystem protectedRegionIndex;
+
+    @In
+    private ProtectionExpirySystem protectionExpiry;
 
     @Priority(EventPriority.PRIORITY_CRITICAL)
     @ReceiveEvent
     public void onAttackBlock(AttackEvent event, EntityRef targetEntity, BlockComponent blockComponent) {
         Vector3i pos = blockComponent.getPosition(new Vector3i());
 
-        if (isInProtectedRegion(Collections.singleton(pos))) {
+        if (protectedRegionIndex.isProtected(pos)) {
             event.consume();
         }
     }
@@ -63,19 +62,28 @@ public class ProtectedRegionServerSystem extends BaseComponentSystem {
     @ReceiveEvent
     public void onAttackBlockRegion(AttackEvent event, EntityRef targetEntity,
                                     BlockRegionComponent blockRegionComponent) {
-        List<Vector3ic> positions = Lists.newArrayList();
-        for (Vector3ic pos : blockRegionComponent.region) {
-            positions.add(new Vector3i(pos));
-        }
-
-        if (isInProtectedRegion(positions)) {
+        if (protectedRegionIndex.intersectsProtectedRegion(blockRegionComponent.region)) {
             event.consume();
         }
     }
 
-    private boolean isInProtectedRegion(Collection<Vector3ic> positions) {
-        for (EntityRef regionEntity : entityManager.getEntitiesWith(ProtectedRegionsComponent.class)) {
-            if (ProtectedRegionUtility.isInProtectedRegion(positions, regionEntity)) {
+    /**
+     * Tests the bounding box of the positions first, so that only positions near protected regions get tested
+     * individually.
+     */
+    private boolean isInProtectedRegion(Collection<? extends Vector3ic> positions) {
+        if (protectedRegionIndex.isEmpty()) {
+            return false;
+        }
+        BlockRegion boundingBox = ProtectedRegionUtility.getBoundingBox(positions);
+        if (boundingBox == null || !protectedRegionIndex.intersectsProtectedRegion(boundingBox)) {
+            return false;
+        }
+        if (positions.size() == 1) {
+            return true;
+        }
+        for (Vector3ic position : positions) {
+            if (protectedRegionIndex.isProtected(position)) {
                 return true;
             }
         }
@@ -101,7 +109,7 @@ public class ProtectedRegionServerSystem extends BaseComponentSystem {
         Vector3f position = event.getTarget().getComponent(LocationComponent.class).getWorldPosition(new Vector3f());
         //TODO: is this equivalent to  new Vector3i(position, RoundingMode.HALF_UP);
         Vector3i roundedPosition = new Vector3i(Math.round(position.x), Math.round(position.y), Math.round(position.z));
-        if (isInProtectedRegion(Collections.singleton(roundedPosition))) {
+        if (protectedRegionIndex.isProtected(roundedPosition)) {
             event.getInstigator().send(new ActivationRequestDenied(event.getActivationId()));
             event.consume();
         }
@@ -111,21 +119,11 @@ public class ProtectedRegionServerSystem extends BaseComponentSystem {
     @ReceiveEvent
     public void onStructureBlocksSpawnedEvent(StructureBlocksSpawnedEvent event, EntityRef entity,
                                               ProtectRegionsForAFewHoursComponent component) {
-        EntityBuilder entityBuilder = entityManager.newBuilder();
-        entityBuilder.setPersistent(true);
-        entityBuilder.addOrSaveComponent(component);
         List<BlockRegion> absoluteRegions = Lists.newArrayList();
         for (BlockRegion relativeRegion : component.regions) {
             absoluteRegions.add(event.getTransformation().transformRegion(relativeRegion));
         }
-        ProtectedRegionsComponent protectedRegionsComponent = new ProtectedRegionsComponent();
-        protectedRegionsComponent.regions = absoluteRegions;
-        entityBuilder.addOrSaveComponent(protectedRegionsComponent);
-
-        LifespanComponent lifespanComponent = new LifespanComponent();
-        lifespanComponent.lifespan = component.hoursToProtect * 3600;
-        entityBuilder.addOrSaveComponent(lifespanComponent);
-        entityBuilder.build();
+        protectionExpiry.protectRegions(absoluteRegions, (long) (component.hoursToProtect * 3600 * 1000));
     }
 
 }
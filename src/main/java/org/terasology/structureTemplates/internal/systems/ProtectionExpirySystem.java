@@ -0,0 +1,122 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityBuilder;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.network.NetworkComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.structureTemplates.components.ProtectedRegionsComponent;
+import org.terasology.structureTemplates.internal.components.TimedProtectedRegionsComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Protects regions for a limited amount of game time.
+ *
+ * The regions are put into buckets of one minute by their expiry time. Each bucket stores its regions on a few
+ * replicated entities with a {@link TimedProtectedRegionsComponent} and a {@link ProtectedRegionsComponent}, each
+ * holding at most {@link #MAX_REGIONS_PER_ENTITY} regions. Adding regions thus only re-indexes and re-sends the
+ * regions of one such entity. Once a bucket is due, all of its entities get destroyed at once.
+ */
+@Share(ProtectionExpirySystem.class)
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class ProtectionExpirySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    static final long BUCKET_DURATION_MS = 60 * 1000;
+    static final int MAX_REGIONS_PER_ENTITY = 64;
+
+    @In
+    private EntityManager entityManager;
+
+    @In
+    private Time time;
+
+    /**
+     * The entities with a {@link TimedProtectedRegionsComponent} by the index of the bucket that they expire in.
+     * New regions of a bucket get added to its last entity, as long as that has room for them.
+     */
+    private NavigableMap<Long, List<EntityRef>> entitiesPerExpiryBucket = new TreeMap<>();
+
+    @Override
+    public void postBegin() {
+        for (EntityRef entity : entityManager.getEntitiesWith(TimedProtectedRegionsComponent.class)) {
+            long expiryTime = entity.getComponent(TimedProtectedRegionsComponent.class).expiryTime;
+            entitiesPerExpiryBucket.computeIfAbsent(getBucket(expiryTime), key -> new ArrayList<>()).add(entity);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        entitiesPerExpiryBucket.clear();
+    }
+
+    /**
+     * Protects the given absolute regions for the given amount of game time.
+     */
+    public void protectRegions(List<BlockRegion> regions, long durationInMs) {
+        if (regions.isEmpty()) {
+            return;
+        }
+        long bucket = getBucket(time.getGameTimeInMs() + durationInMs);
+        List<EntityRef> entities = entitiesPerExpiryBucket.computeIfAbsent(bucket, key -> new ArrayList<>());
+        if (!entities.isEmpty()) {
+            EntityRef lastEntity = entities.get(entities.size() - 1);
+            ProtectedRegionsComponent component = lastEntity.getComponent(ProtectedRegionsComponent.class);
+            if (component != null && component.regions.size() + regions.size() <= MAX_REGIONS_PER_ENTITY) {
+                for (BlockRegion region : regions) {
+                    component.regions.add(new BlockRegion(region));
+                }
+                lastEntity.saveComponent(component);
+                return;
+            }
+        }
+        entities.add(createTimedRegionsEntity(regions, bucket * BUCKET_DURATION_MS));
+    }
+
+    @Override
+    public void update(float delta) {
+        long currentBucket = Math.floorDiv(time.getGameTimeInMs(), BUCKET_DURATION_MS);
+        while (!entitiesPerExpiryBucket.isEmpty() && entitiesPerExpiryBucket.firstKey() <= currentBucket) {
+            for (EntityRef entity : entitiesPerExpiryBucket.pollFirstEntry().getValue()) {
+                entity.destroy();
+            }
+        }
+    }
+
+    /**
+     * A region gets removed in the first bucket that starts after its expiry time, so it never expires early.
+     */
+    static long getBucket(long expiryTime) {
+        return Math.floorDiv(expiryTime, BUCKET_DURATION_MS) + 1;
+    }
+
+    private EntityRef createTimedRegionsEntity(List<BlockRegion> regions, long expiryTime) {
+        EntityBuilder entityBuilder = entityManager.newBuilder();
+        entityBuilder.setPersistent(true);
+        TimedProtectedRegionsComponent timedRegionsComponent = new TimedProtectedRegionsComponent();
+        timedRegionsComponent.expiryTime = expiryTime;
+        entityBuilder.addComponent(timedRegionsComponent);
+        ProtectedRegionsComponent protectedRegionsComponent = new ProtectedRegionsComponent();
+        protectedRegionsComponent.regions = new ArrayList<>();
+        for (BlockRegion region : regions) {
+            protectedRegionsComponent.regions.add(new BlockRegion(region));
+        }
+        entityBuilder.addComponent(protectedRegionsComponent);
+        // Clients use the regions to reject interactions with protected blocks locally
+        NetworkComponent networkComponent = new NetworkComponent();
+        networkComponent.replicateMode = NetworkComponent.ReplicateMode.ALWAYS;
+        entityBuilder.addComponent(networkComponent);
+        return entityBuilder.build();
+    }
+}
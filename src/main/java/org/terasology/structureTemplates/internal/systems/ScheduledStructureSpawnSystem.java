@@ -12,38 +12,76 @@ import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
 import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnAddedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.engine.entitySystem.prefab.Prefab;
 import org.terasology.engine.entitySystem.prefab.PrefabManager;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.console.commandSystem.annotations.Command;
+import org.terasology.engine.logic.console.commandSystem.annotations.CommandParam;
 import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.logic.permission.PermissionManager;
 import org.terasology.engine.math.Side;
+import org.terasology.engine.network.ClientComponent;
 import org.terasology.engine.registry.In;
+import org.terasology.engine.world.WorldComponent;
+import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.event.OnChunkLoaded;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.structureTemplates.components.CheckBlockRegionConditionComponent;
+import org.terasology.structureTemplates.components.IgnoreAirBlocksComponent;
+import org.terasology.structureTemplates.components.NoOverlapWithSpawnedStructuresComponent;
 import org.terasology.structureTemplates.components.PendingStructureSpawnComponent;
 import org.terasology.structureTemplates.components.ScheduleStructurePlacementComponent;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent;
 import org.terasology.structureTemplates.components.StructureTemplateComponent;
 import org.terasology.structureTemplates.events.CheckSpawnConditionEvent;
 import org.terasology.structureTemplates.events.SpawnStructureEvent;
 import org.terasology.structureTemplates.events.StructureBlocksSpawnedEvent;
+import org.terasology.structureTemplates.interfaces.SpawnedStructureIndex;
 import org.terasology.structureTemplates.interfaces.StructureTemplateProvider;
 import org.terasology.structureTemplates.util.BlockRegionTransform;
+import org.terasology.structureTemplates.util.BlockRegionUtilities;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Random;
+import java.util.TreeSet;
 
 /**
  * Powers the {@link ScheduleStructurePlacementComponent}. When a {@link SpawnStructureEvent} is received it creates
  * entities with the {@link PendingStructureSpawnComponent} in order to cause the spawning of a prefab with the
  * {@link StructureTemplateComponent} at the wanted locations.
+ *
+ * A template candidate that would place or check blocks in a chunk that is not loaded isn't attempted. Instead the
+ * pending spawn waits till that chunk got loaded.
+ *
+ * Before the spawn conditions of a template candidate get checked, its bounding box gets compared with protected
+ * regions and, if wanted, with the structures that got spawned before. See {@link #isRejectedByPreCheck}.
  */
 @RegisterSystem(RegisterMode.AUTHORITY)
 public class ScheduledStructureSpawnSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
     private static final Logger logger = LoggerFactory.getLogger(ScheduledStructureSpawnSystem.class);
+    private static final float SECONDS_BETWEEN_PRIORITY_UPDATES = 1.0f;
+
+    /**
+     * Loaded first, then nearest to a player. Among equal ones the most recently scheduled one comes first.
+     */
+    private static final Comparator<PendingSpawn> PENDING_SPAWN_ORDER = Comparator
+        .comparing((PendingSpawn pendingSpawn) -> !pendingSpawn.loaded)
+        .thenComparingDouble(pendingSpawn -> pendingSpawn.distanceSquaredToNearestPlayer)
+        .thenComparing(pendingSpawn -> -pendingSpawn.sequenceNumber);
 
     @In
     private EntityManager entityManager;
@@ -51,7 +89,41 @@ public class ScheduledStructureSpawnSystem extends BaseComponentSystem implement
     @In
     private StructureTemplateProvider structureTemplateProvider;
 
-    private List<EntityRef> pendingSpawnEntities = new ArrayList<>();
+    @In
+    private WorldProvider worldProvider;
+
+    @In
+    private ChunkProvider chunkProvider;
+
+    @In
+    private SpawnPlanCacheSystem spawnPlanCache;
+
+    @In
+    private SpawnedStructureIndex spawnedStructureIndex;
+
+    @In
+    private ProtectedRegionIndexSystem protectedRegionIndex;
+
+    /**
+     * Pending spawns in the order they should be attempted: Those in loaded areas first, then those closest to a
+     * player. The position related priority of an entry gets only updated in {@link #updatePriorities()}.
+     */
+    private NavigableSet<PendingSpawn> pendingSpawns = new TreeSet<>(PENDING_SPAWN_ORDER);
+    private Map<EntityRef, PendingSpawn> pendingSpawnsByEntity = new HashMap<>();
+    /**
+     * Pending spawns whose last template candidate needed a chunk that was not loaded, by that chunk position. They
+     * get moved back to {@link #pendingSpawns} when the chunk gets loaded.
+     */
+    private Map<Vector3i, List<PendingSpawn>> parkedSpawnsByChunk = new HashMap<>();
+    private long nextPendingSpawnSequenceNumber;
+    private List<Vector3f> playerPositions = new ArrayList<>();
+    private Map<EntityRef, TemplateBounds> boundsPerTemplate = new HashMap<>();
+    private float secondsTillPriorityUpdate;
+
+    /**
+     * Structure template candidates get tried till this much time has been spent in a tick.
+     */
+    private long maxMillisecondsPerTick = 5;
 
     private EntityRef activeEntity;
     private Side activeEntityDirection;
@@ -94,33 +166,115 @@ public class ScheduledStructureSpawnSystem extends BaseComponentSystem implement
     public void onAddedPendingStructureSpawnComponent(OnAddedComponent event, EntityRef entity,
                                                       PendingStructureSpawnComponent component,
                                                       LocationComponent locationComponent) {
-        pendingSpawnEntities.add(entity);
+        PendingSpawn pendingSpawn = new PendingSpawn(entity,
+            new Vector3i(locationComponent.getWorldPosition(new Vector3f()), RoundingMode.FLOOR),
+            nextPendingSpawnSequenceNumber++);
+        updatePriority(pendingSpawn);
+        PendingSpawn replacedSpawn = pendingSpawnsByEntity.put(entity, pendingSpawn);
+        if (replacedSpawn != null) {
+            forgetPendingSpawn(replacedSpawn);
+        }
+        pendingSpawns.add(pendingSpawn);
     }
 
     @ReceiveEvent
     public void onBeforeRemovePendingStructureSpawnComponent(BeforeRemoveComponent event, EntityRef entity,
                                                              PendingStructureSpawnComponent component,
                                                              LocationComponent locationComponent) {
-        pendingSpawnEntities.remove(entity);
+        PendingSpawn pendingSpawn = pendingSpawnsByEntity.remove(entity);
+        if (pendingSpawn != null) {
+            forgetPendingSpawn(pendingSpawn);
+        }
+    }
+
+    @ReceiveEvent(components = SpawnBlockRegionsComponent.class)
+    public void onSpawnBlockRegionsChanged(OnChangedComponent event, EntityRef entity) {
+        boundsPerTemplate.remove(entity);
+    }
+
+    @ReceiveEvent(components = CheckBlockRegionConditionComponent.class)
+    public void onCheckBlockRegionConditionChanged(OnChangedComponent event, EntityRef entity) {
+        boundsPerTemplate.remove(entity);
+    }
+
+    @ReceiveEvent(components = StructureTemplateComponent.class)
+    public void onBeforeRemoveStructureTemplate(BeforeRemoveComponent event, EntityRef entity) {
+        boundsPerTemplate.remove(entity);
+    }
+
+    @ReceiveEvent(components = WorldComponent.class)
+    public void onChunkLoaded(OnChunkLoaded event, EntityRef worldEntity) {
+        List<PendingSpawn> parkedSpawns = parkedSpawnsByChunk.remove(new Vector3i(event.getChunkPos()));
+        if (parkedSpawns == null) {
+            return;
+        }
+        for (PendingSpawn pendingSpawn : parkedSpawns) {
+            pendingSpawn.parkedOnChunk = null;
+            updatePriority(pendingSpawn);
+            pendingSpawns.add(pendingSpawn);
+        }
+    }
+
+    private void forgetPendingSpawn(PendingSpawn pendingSpawn) {
+        if (pendingSpawn.parkedOnChunk != null) {
+            List<PendingSpawn> parkedSpawns = parkedSpawnsByChunk.get(pendingSpawn.parkedOnChunk);
+            parkedSpawns.remove(pendingSpawn);
+            if (parkedSpawns.isEmpty()) {
+                parkedSpawnsByChunk.remove(pendingSpawn.parkedOnChunk);
+            }
+        } else {
+            pendingSpawns.remove(pendingSpawn);
+        }
     }
 
 
     @Override
     public void update(float delta) {
-        if (pendingSpawnEntities.size() == 0) {
-            return;
+        secondsTillPriorityUpdate -= delta;
+        if (secondsTillPriorityUpdate <= 0) {
+            secondsTillPriorityUpdate = SECONDS_BETWEEN_PRIORITY_UPDATES;
+            updatePriorities();
+        }
+
+        long startTime = System.currentTimeMillis();
+        while (trySpawnNextTemplate()) {
+            if (System.currentTimeMillis() - startTime >= maxMillisecondsPerTick) {
+                return;
+            }
+        }
+    }
+
+    @Command(shortDescription = "Sets how many milliseconds per tick may be spent on spawning scheduled structures",
+        runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String setScheduledStructureSpawnBudget(@CommandParam("milliseconds") int milliseconds) {
+        maxMillisecondsPerTick = Math.max(1, milliseconds);
+        return "Scheduled structures may now use " + maxMillisecondsPerTick + " ms per tick";
+    }
+
+    /**
+     * Tries to spawn the next structure template candidate for the active pending structure spawn.
+     *
+     * @return false if there was nothing to do.
+     */
+    private boolean trySpawnNextTemplate() {
+        if (pendingSpawns.isEmpty()) {
+            return false;
+        }
+
+        if (activeEntity != null && !activeEntity.exists()) {
+            destroyActiveEntityAndItsClearFields();
         }
 
         if (activeEntity == null) {
-            activeEntity = pendingSpawnEntities.get(pendingSpawnEntities.size() - 1);
+            activeEntity = pendingSpawns.first().entity;
 
             PendingStructureSpawnComponent pendingStructureSpawnComponent = activeEntity.getComponent(
                 PendingStructureSpawnComponent.class);
             LocationComponent locationComponent = activeEntity.getComponent(LocationComponent.class);
             if (pendingStructureSpawnComponent == null || locationComponent == null) {
                 // should not happen though how map gets filled, but just to be sure
-                activeEntity.destroy();
-                return;
+                destroyActiveEntityAndItsClearFields();
+                return true;
             }
             Prefab type = pendingStructureSpawnComponent.structureTemplateType;
             activeEntityDirection = pendingStructureSpawnComponent.front;
@@ -139,25 +293,150 @@ public class ScheduledStructureSpawnSystem extends BaseComponentSystem implement
         BlockRegionTransform blockRegionTransform = createTransformForIncomingConnectionPoint(activeEntityDirection,
             activeEntityLocation, new Vector3i(0, 0, 0), Side.FRONT);
 
+        TemplateBounds bounds = boundsPerTemplate.computeIfAbsent(structureToSpawn, TemplateBounds::new);
+        BlockRegion footprint = bounds.getFootprint(blockRegionTransform);
+        Vector3i unloadedChunk = findUnloadedChunk(footprint);
+        if (unloadedChunk != null) {
+            parkActiveEntity(unloadedChunk);
+            return true;
+        }
+
+        if (isRejectedByPreCheck(structureToSpawn, bounds, blockRegionTransform)) {
+            rejectTemplateCandidate();
+            return true;
+        }
+
         CheckSpawnConditionEvent checkSpawnConditionEvent = new CheckSpawnConditionEvent(blockRegionTransform);
         structureToSpawn.send(checkSpawnConditionEvent);
         if (checkSpawnConditionEvent.isPreventSpawn()) {
-            if (!activeEntityRemainingTemplates.hasNext()) {
-                /**
-                 * No template of the specified type is spawnable, to avoid waste CPU usage, do so as if spawing was
-                 * succesful and destroy the entity that acts as placeholder.
-                 */
-                destroyActiveEntityAndItsClearFields();
-            }
-            return;
+            rejectTemplateCandidate();
+            return true;
         }
 
         structureToSpawn.send(new SpawnStructureEvent(blockRegionTransform));
         destroyActiveEntityAndItsClearFields();
+        return true;
+    }
+
+    /**
+     * Updates the player positions and the priorities of all pending spawns, as players move and chunks get loaded.
+     */
+    private void updatePriorities() {
+        playerPositions.clear();
+        for (EntityRef client : entityManager.getEntitiesWith(ClientComponent.class)) {
+            EntityRef character = client.getComponent(ClientComponent.class).character;
+            LocationComponent characterLocation = character.getComponent(LocationComponent.class);
+            if (characterLocation != null) {
+                playerPositions.add(characterLocation.getWorldPosition(new Vector3f()));
+            }
+        }
+
+        List<PendingSpawn> spawnsToUpdate = new ArrayList<>(pendingSpawns);
+        pendingSpawns.clear();
+        for (PendingSpawn pendingSpawn : spawnsToUpdate) {
+            updatePriority(pendingSpawn);
+            pendingSpawns.add(pendingSpawn);
+        }
+    }
+
+    /**
+     * Must not be called while the pending spawn is in {@link #pendingSpawns}.
+     */
+    private void updatePriority(PendingSpawn pendingSpawn) {
+        pendingSpawn.loaded = worldProvider.isBlockRelevant(pendingSpawn.position);
+        float distanceSquared = Float.POSITIVE_INFINITY;
+        for (Vector3f playerPosition : playerPositions) {
+            distanceSquared = Math.min(distanceSquared, playerPosition.distanceSquared(pendingSpawn.position.x(),
+                pendingSpawn.position.y(), pendingSpawn.position.z()));
+        }
+        pendingSpawn.distanceSquaredToNearestPlayer = distanceSquared;
+    }
+
+    private void rejectTemplateCandidate() {
+        if (!activeEntityRemainingTemplates.hasNext()) {
+            /**
+             * No template of the specified type is spawnable, to avoid waste CPU usage, do so as if spawing was
+             * succesful and destroy the entity that acts as placeholder.
+             */
+            destroyActiveEntityAndItsClearFields();
+        }
+    }
+
+    /**
+     * Rejects placements that would place blocks in a protected region or, for templates with the
+     * {@link NoOverlapWithSpawnedStructuresComponent}, within the bounding box of an already spawned structure.
+     * Only bounding boxes get compared unless a protected region intersects the bounding box.
+     */
+    private boolean isRejectedByPreCheck(EntityRef structureTemplate, TemplateBounds bounds,
+                                         BlockRegionTransform transform) {
+        BlockRegion spawnBox = bounds.getSpawnBox(transform);
+        if (spawnBox == null) {
+            return false;
+        }
+        if (structureTemplate.hasComponent(NoOverlapWithSpawnedStructuresComponent.class)
+            && spawnedStructureIndex.intersectsSpawnedStructure(spawnBox)) {
+            return true;
+        }
+        for (BlockRegionc protectedRegion : protectedRegionIndex.getProtectedRegionsIntersecting(spawnBox)) {
+            if (placesBlocksIn(structureTemplate, transform, protectedRegion)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean placesBlocksIn(EntityRef structureTemplate, BlockRegionTransform transform, BlockRegionc region) {
+        SpawnBlockRegionsComponent spawnBlockRegionsComponent =
+            structureTemplate.getComponent(SpawnBlockRegionsComponent.class);
+        boolean[] intersects = new boolean[1];
+        spawnPlanCache.getPlan(spawnBlockRegionsComponent, transform).forEachRegion(transform.getOffset(),
+            structureTemplate.hasComponent(IgnoreAirBlocksComponent.class), (spawnRegion, block) -> {
+                intersects[0] |= spawnRegion.intersectsBlockRegion(region);
+            });
+        return intersects[0];
+    }
+
+    /**
+     * @return the position of a chunk within the region that is not loaded, or null if all are loaded.
+     */
+    private Vector3i findUnloadedChunk(BlockRegion region) {
+        if (region == null) {
+            return null;
+        }
+        Vector3i chunkPos = new Vector3i();
+        for (int chunkX = Math.floorDiv(region.minX(), Chunks.SIZE_X);
+             chunkX <= Math.floorDiv(region.maxX(), Chunks.SIZE_X); chunkX++) {
+            for (int chunkY = Math.floorDiv(region.minY(), Chunks.SIZE_Y);
+                 chunkY <= Math.floorDiv(region.maxY(), Chunks.SIZE_Y); chunkY++) {
+                for (int chunkZ = Math.floorDiv(region.minZ(), Chunks.SIZE_Z);
+                     chunkZ <= Math.floorDiv(region.maxZ(), Chunks.SIZE_Z); chunkZ++) {
+                    if (chunkProvider.getChunk(chunkPos.set(chunkX, chunkY, chunkZ)) == null) {
+                        return chunkPos;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stops attempting the active entity till the given chunk got loaded. The template candidates get picked anew
+     * then.
+     */
+    private void parkActiveEntity(Vector3i unloadedChunk) {
+        PendingSpawn pendingSpawn = pendingSpawnsByEntity.get(activeEntity);
+        pendingSpawns.remove(pendingSpawn);
+        pendingSpawn.parkedOnChunk = unloadedChunk;
+        parkedSpawnsByChunk.computeIfAbsent(unloadedChunk, key -> new ArrayList<>()).add(pendingSpawn);
+        clearActiveEntityFields();
     }
 
     private void destroyActiveEntityAndItsClearFields() {
         activeEntity.destroy();
+        clearActiveEntityFields();
+    }
+
+    private void clearActiveEntityFields() {
         activeEntity = null;
         activeEntityRemainingTemplates = null;
         activeEntityDirection = null;
@@ -178,4 +457,65 @@ public class ScheduledStructureSpawnSystem extends BaseComponentSystem implement
         return BlockRegionTransform.createRotationThenMovement(incomingConnectionPointDirection, direction,
             actualSpawnPosition);
     }
+
+    /**
+     * The bounding boxes of a structure template without transformation.
+     */
+    private static final class TemplateBounds {
+        /**
+         * Where the template places blocks, or null if it places none.
+         */
+        private final BlockRegion spawnBox;
+        /**
+         * Where the template places or checks blocks, or null if it does neither.
+         */
+        private final BlockRegion footprint;
+
+        TemplateBounds(EntityRef structureTemplate) {
+            SpawnBlockRegionsComponent spawnBlockRegionsComponent =
+                structureTemplate.getComponent(SpawnBlockRegionsComponent.class);
+            if (spawnBlockRegionsComponent != null && spawnBlockRegionsComponent.regionsToFill != null
+                && !spawnBlockRegionsComponent.regionsToFill.isEmpty()) {
+                spawnBox = BlockRegionUtilities.getBoundingBox(spawnBlockRegionsComponent);
+            } else {
+                spawnBox = null;
+            }
+            BlockRegion combinedBox = spawnBox != null ? new BlockRegion(spawnBox) : null;
+            CheckBlockRegionConditionComponent checkComponent =
+                structureTemplate.getComponent(CheckBlockRegionConditionComponent.class);
+            if (checkComponent != null && checkComponent.checksToPerform != null) {
+                for (CheckBlockRegionConditionComponent.BlockRegionConditionCheck check
+                    : checkComponent.checksToPerform) {
+                    if (check.region == null) {
+                        continue;
+                    }
+                    combinedBox = combinedBox == null ? new BlockRegion(check.region) : combinedBox.union(check.region);
+                }
+            }
+            footprint = combinedBox;
+        }
+
+        BlockRegion getSpawnBox(BlockRegionTransform transform) {
+            return spawnBox != null ? transform.transformRegion(spawnBox) : null;
+        }
+
+        BlockRegion getFootprint(BlockRegionTransform transform) {
+            return footprint != null ? transform.transformRegion(footprint) : null;
+        }
+    }
+
+    private static final class PendingSpawn {
+        private final EntityRef entity;
+        private final Vector3i position;
+        private final long sequenceNumber;
+        private boolean loaded;
+        private float distanceSquaredToNearestPlayer;
+        private Vector3i parkedOnChunk;
+
+        PendingSpawn(EntityRef entity, Vector3i position, long sequenceNumber) {
+            this.entity = entity;
+            this.position = position;
+            this.sequenceNumber = sequenceNumber;
+        }
+    }
 }
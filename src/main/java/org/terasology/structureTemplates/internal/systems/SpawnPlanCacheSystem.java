@@ -0,0 +1,51 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent;
+import org.terasology.structureTemplates.util.BlockRegionTransform;
+import org.terasology.structureTemplates.util.CompiledSpawnPlan;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Caches a {@link CompiledSpawnPlan} per {@link SpawnBlockRegionsComponent} and rotation, so that structure templates
+ * that get spawned often don't need to transform their regions and blocks again for every spawn.
+ *
+ * The cache is keyed by the component object of the template entity and not by prefab, as entities like structure
+ * spawner items share a prefab while having different regions. The plans of a component get dropped when the
+ * component changes.
+ */
+@Share(SpawnPlanCacheSystem.class)
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class SpawnPlanCacheSystem extends BaseComponentSystem {
+
+    private final Map<SpawnBlockRegionsComponent, CompiledSpawnPlan[]> plansPerComponent = new WeakHashMap<>();
+
+    /**
+     * @return the plan for the rotation of the given transformation. Only the offset of the transformation
+     * needs to be applied by the caller.
+     */
+    public CompiledSpawnPlan getPlan(SpawnBlockRegionsComponent component, BlockRegionTransform transformation) {
+        CompiledSpawnPlan[] plans = plansPerComponent.computeIfAbsent(component, key -> new CompiledSpawnPlan[4]);
+        int rotations = Math.floorMod(transformation.getCounterClockWiseHorizontal90DegreeRotations(), plans.length);
+        if (plans[rotations] == null) {
+            plans[rotations] = CompiledSpawnPlan.compile(component, transformation);
+        }
+        return plans[rotations];
+    }
+
+    @ReceiveEvent
+    public void onSpawnBlockRegionsChanged(OnChangedComponent event, EntityRef entity,
+                                           SpawnBlockRegionsComponent component) {
+        plansPerComponent.remove(component);
+    }
+}
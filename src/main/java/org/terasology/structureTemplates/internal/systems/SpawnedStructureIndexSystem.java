@@ -0,0 +1,107 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import org.joml.Vector3i;
+import org.terasology.engine.entitySystem.entity.EntityBuilder;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent;
+import org.terasology.structureTemplates.events.StructureSpawnStartedEvent;
+import org.terasology.structureTemplates.interfaces.SpawnedStructureIndex;
+import org.terasology.structureTemplates.internal.components.SpawnedStructuresComponent;
+import org.terasology.structureTemplates.util.BlockRegionIndex;
+import org.terasology.structureTemplates.util.BlockRegionTransform;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation for {@link SpawnedStructureIndex}.
+ *
+ * The bounding boxes are stored by the horizontal area of {@link #BUCKET_SIZE} blocks their minimum corner is in, on
+ * one persistent entity with a {@link SpawnedStructuresComponent} per area. Recording a structure thus only saves
+ * the bounding boxes of one area. In memory, the bounding boxes are indexed by chunk.
+ */
+@Share(SpawnedStructureIndex.class)
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class SpawnedStructureIndexSystem extends BaseComponentSystem implements SpawnedStructureIndex {
+    static final int BUCKET_SIZE = 256;
+
+    @In
+    private EntityManager entityManager;
+
+    @In
+    private SpawnPlanCacheSystem spawnPlanCache;
+
+    private final BlockRegionIndex<EntityRef> boundingBoxIndex = new BlockRegionIndex<>();
+    private final Map<Vector3i, EntityRef> entityPerBucket = new HashMap<>();
+
+    @Override
+    public void postBegin() {
+        for (EntityRef entity : entityManager.getEntitiesWith(SpawnedStructuresComponent.class)) {
+            SpawnedStructuresComponent component = entity.getComponent(SpawnedStructuresComponent.class);
+            entityPerBucket.put(new Vector3i(component.bucket), entity);
+            boundingBoxIndex.replaceAll(entity, component.boundingBoxes);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        boundingBoxIndex.clear();
+        entityPerBucket.clear();
+    }
+
+    @ReceiveEvent
+    public void onStructureSpawnStarted(StructureSpawnStartedEvent event, EntityRef entity,
+                                        SpawnBlockRegionsComponent spawnBlockRegionsComponent) {
+        BlockRegionTransform transformation = event.getTransformation();
+        BlockRegion boundingBox = spawnPlanCache.getPlan(spawnBlockRegionsComponent, transformation)
+                .getBoundingBox(transformation.getOffset());
+        if (boundingBox == null) {
+            return;
+        }
+        Vector3i bucket = getBucket(boundingBox.minX(), boundingBox.minZ());
+        EntityRef bucketEntity = entityPerBucket.get(bucket);
+        if (bucketEntity == null || !bucketEntity.exists()) {
+            bucketEntity = createBucketEntity(bucket);
+            entityPerBucket.put(bucket, bucketEntity);
+        }
+        SpawnedStructuresComponent component = bucketEntity.getComponent(SpawnedStructuresComponent.class);
+        component.boundingBoxes.add(boundingBox);
+        bucketEntity.saveComponent(component);
+        boundingBoxIndex.add(bucketEntity, boundingBox);
+    }
+
+    @Override
+    public boolean intersectsSpawnedStructure(BlockRegionc region) {
+        return boundingBoxIndex.intersects(region);
+    }
+
+    @Override
+    public List<BlockRegionc> getSpawnedStructuresIntersecting(BlockRegionc region) {
+        return boundingBoxIndex.getIntersectingRegions(region);
+    }
+
+    static Vector3i getBucket(int x, int z) {
+        return new Vector3i(Math.floorDiv(x, BUCKET_SIZE), 0, Math.floorDiv(z, BUCKET_SIZE));
+    }
+
+    private EntityRef createBucketEntity(Vector3i bucket) {
+        EntityBuilder entityBuilder = entityManager.newBuilder();
+        entityBuilder.setPersistent(true);
+        SpawnedStructuresComponent component = new SpawnedStructuresComponent();
+        component.bucket.set(bucket);
+        entityBuilder.addComponent(component);
+        return entityBuilder.build();
+    }
+}
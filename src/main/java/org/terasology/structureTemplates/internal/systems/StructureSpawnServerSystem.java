@@ -6,7 +6,6 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.joml.Vector3f;
 import org.joml.Vector3i;
-import org.joml.Vector3ic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.entitySystem.entity.EntityManager;
@@ -23,7 +22,6 @@ import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.math.Side;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.world.WorldProvider;
-import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockComponent;
 import org.terasology.engine.world.block.BlockManager;
 import org.terasology.engine.world.block.BlockRegion;
@@ -34,7 +32,6 @@ import org.terasology.structureTemplates.components.CompletionTimeComponent;
 import org.terasology.structureTemplates.components.IgnoreAirBlocksComponent;
 import org.terasology.structureTemplates.components.NoConstructionAnimationComponent;
 import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent;
-import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent.RegionToFill;
 import org.terasology.structureTemplates.components.SpawnStructureActionComponent;
 import org.terasology.structureTemplates.components.StructureTemplateComponent;
 import org.terasology.structureTemplates.events.CheckSpawnConditionEvent;
@@ -46,11 +43,12 @@ import org.terasology.structureTemplates.events.SpawnTemplateEvent;
 import org.terasology.structureTemplates.events.StructureBlocksSpawnedEvent;
 import org.terasology.structureTemplates.events.StructureSpawnStartedEvent;
 import org.terasology.structureTemplates.internal.components.BuildStepwiseStructureComponent;
-import org.terasology.structureTemplates.internal.components.BuildStepwiseStructureComponent.BlockToPlace;
 import org.terasology.structureTemplates.internal.components.BuildStepwiseStructureComponent.BuildStep;
+import org.terasology.structureTemplates.internal.components.BuildStepwiseStructureComponent.RegionToPlace;
 import org.terasology.structureTemplates.internal.components.BuildStructureCounterComponent;
 import org.terasology.structureTemplates.internal.events.StructureSpawnFailedEvent;
 import org.terasology.structureTemplates.util.BlockRegionTransform;
+import org.terasology.structureTemplates.util.RegionBlockMap;
 
 import java.util.List;
 import java.util.Map;
@@ -89,6 +87,9 @@ public class StructureSpawnServerSystem extends BaseComponentSystem {
     @In
     private AssetManager assetManager;
 
+    @In
+    private SpawnPlanCacheSystem spawnPlanCache;
+
     private BlockRegionTransform regionTransform;
     private EntityRef structureEntity;
 
@@ -110,22 +111,9 @@ public class StructureSpawnServerSystem extends BaseComponentSystem {
                                                 NoConstructionAnimationComponent noConstructionAnimationComponent) {
         BlockRegionTransform transformation = event.getTransformation();
 
-        Map<Vector3ic, Block> blocksToPlace = Maps.newHashMap();
-
-        for (RegionToFill regionToFill : spawnBlockRegionsComponent.regionsToFill) {
-            Block block = regionToFill.blockType;
-            if (entity.hasComponent(IgnoreAirBlocksComponent.class) && isAir(block)) {
-                continue;
-            }
-
-            BlockRegion region = regionToFill.region;
-            region = transformation.transformRegion(region);
-            block = transformation.transformBlock(block);
-
-            for (Vector3ic pos : region) {
-                blocksToPlace.put(new Vector3i(pos), block);
-            }
-        }
+        RegionBlockMap blocksToPlace = new RegionBlockMap();
+        spawnPlanCache.getPlan(spawnBlockRegionsComponent, transformation).fillRegions(blocksToPlace,
+                transformation.getOffset(), entity.hasComponent(IgnoreAirBlocksComponent.class));
 
         worldProvider.setBlocks(blocksToPlace);
 
@@ -157,27 +145,16 @@ public class StructureSpawnServerSystem extends BaseComponentSystem {
 
         BlockRegionTransform transformation = event.getTransformation();
 
-        Map<Integer, List<BlockToPlace>> blocksPerLayer = Maps.newTreeMap();
-        for (RegionToFill regionToFill : spawnBlockRegionComponent.regionsToFill) {
-            Block block = regionToFill.blockType;
-            if (entity.hasComponent(IgnoreAirBlocksComponent.class) && isAir(block)) {
-                continue;
-            }
-
-            BlockRegion region = regionToFill.region;
-            region = transformation.transformRegion(region);
-            block = transformation.transformBlock(block);
-
-            for (Vector3ic pos : region) {
-                final int y = pos.y();
-                if (!blocksPerLayer.containsKey(y)) {
-                    blocksPerLayer.put(y, Lists.newArrayList());
-                }
-                blocksPerLayer.get(y).add(createBlockToPlace(pos, block));
-            }
-        }
+        Map<Integer, List<RegionToPlace>> regionsPerLayer = Maps.newTreeMap();
+        spawnPlanCache.getPlan(spawnBlockRegionComponent, transformation).forEachRegion(transformation.getOffset(),
+                entity.hasComponent(IgnoreAirBlocksComponent.class), (region, block) -> {
+                    for (int y = region.minY(); y <= region.maxY(); y++) {
+                        BlockRegion layer = new BlockRegion(region).minY(y).maxY(y);
+                        regionsPerLayer.computeIfAbsent(y, key -> Lists.newArrayList()).add(new RegionToPlace(layer, block));
+                    }
+                });
 
-        List<BuildStep> blocksPerStep = Lists.newArrayList(blocksPerLayer.values()).stream().map(BuildStep::new).collect(Collectors.toList());
+        List<BuildStep> blocksPerStep = Lists.newArrayList(regionsPerLayer.values()).stream().map(BuildStep::new).collect(Collectors.toList());
         BuildStepwiseStructureComponent buildStepwiseStructureComponent = new BuildStepwiseStructureComponent(blocksPerStep);
         BuildStructureCounterComponent growStructureCounter = new BuildStructureCounterComponent();
 
@@ -194,19 +171,8 @@ public class StructureSpawnServerSystem extends BaseComponentSystem {
                                                    SpawnBlockRegionsComponent spawnBlockRegionComponent) {
 
         BlockRegionTransform transformation = event.getTransformation();
-        for (RegionToFill regionToFill : spawnBlockRegionComponent.regionsToFill) {
-            Block block = regionToFill.blockType;
-            if (entity.hasComponent(IgnoreAirBlocksComponent.class) && isAir(block)) {
-                continue;
-            }
-
-            BlockRegion region = regionToFill.region;
-            region = transformation.transformRegion(region);
-            block = transformation.transformBlock(block);
-
-
-            event.fillRegion(region, block);
-        }
+        spawnPlanCache.getPlan(spawnBlockRegionComponent, transformation).forEachRegion(transformation.getOffset(),
+                entity.hasComponent(IgnoreAirBlocksComponent.class), event::fillRegion);
     }
 
 
@@ -223,13 +189,13 @@ public class StructureSpawnServerSystem extends BaseComponentSystem {
         List<BuildStep> buildSteps = buildStepwiseStructureComponent.getBuildSteps();
         BuildStep step = buildSteps.get(currentStepCount);
 
-        Map<Vector3ic, Block> blocksToPlace = Maps.newHashMap();
+        RegionBlockMap blocksToPlace = new RegionBlockMap();
 
-        for (BlockToPlace blockToPlace : step.blocksInStep) {
-            blocksToPlace.put(blockToPlace.pos, blockToPlace.block);
+        for (RegionToPlace regionToPlace : step.regionsInStep) {
+            blocksToPlace.fillRegion(regionToPlace.region, regionToPlace.block);
         }
 
-        worldProvider.setBlocks(blocksToPlace); //TODO: finish migration
+        worldProvider.setBlocks(blocksToPlace);
 
         if (currentStepCount + 1 < buildSteps.size()) {
             counterComponent.iter = currentStepCount + 1;
@@ -282,10 +248,6 @@ public class StructureSpawnServerSystem extends BaseComponentSystem {
 
     }
 
-    private boolean isAir(final Block block) {
-        return block.getURI().getBlockFamilyDefinitionUrn().equals(BlockManager.AIR_ID.getBlockFamilyDefinitionUrn());
-    }
-
     // TODO move method into utility class:
     public static BlockRegionTransform getBlockRegionTransformForStructurePlacement(ActivateEvent event,
                                                                                     BlockComponent blockComponent) {
@@ -304,11 +266,4 @@ public class StructureSpawnServerSystem extends BaseComponentSystem {
         return BlockRegionTransform.createRotationThenMovement(fromSide, toSide, target);
     }
 
-    private static BlockToPlace createBlockToPlace(Vector3ic pos, Block block) {
-        BlockToPlace b = new BlockToPlace();
-        b.pos = new Vector3i(pos);
-        b.block = block;
-        return b;
-    }
-
 }
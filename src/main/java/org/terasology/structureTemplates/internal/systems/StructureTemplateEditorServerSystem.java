@@ -67,6 +67,7 @@ import org.terasology.structureTemplates.internal.events.RequestStructureTemplat
 import org.terasology.structureTemplates.internal.events.StopEditingProcessRequest;
 import org.terasology.structureTemplates.internal.events.StructureTemplateStringRequest;
 import org.terasology.structureTemplates.util.AnimationType;
+import org.terasology.structureTemplates.util.BlockRegionSet;
 import org.terasology.structureTemplates.util.BlockRegionTransform;
 import org.terasology.structureTemplates.util.ListUtil;
 import org.terasology.structureTemplates.util.RegionMergeUtil;
@@ -210,12 +211,13 @@ public class StructureTemplateEditorServerSystem extends BaseComponentSystem {
     private void addBlockPositionsToTemplate(Set<Vector3ic> positions,
                                              EntityRef templateEntity,
                                              StructureTemplateOriginComponent templateComponent) {
-        List<BlockRegion> originalRegions = templateComponent.absoluteTemplateRegions;
-        Set<Vector3ic> positionsInTemplate = Sets.newHashSet();
-        positionsInTemplate.addAll(RegionMergeUtil.positionsOfRegions(originalRegions));
-        if (positionsInTemplate.containsAll(positions)) {
-            positionsInTemplate.addAll(positions);
-            templateComponent.absoluteTemplateRegions = RegionMergeUtil.mergePositionsIntoRegions(positionsInTemplate);
+        BlockRegionSet regionsInTemplate = new BlockRegionSet(templateComponent.absoluteTemplateRegions);
+        boolean changed = false;
+        for (Vector3ic position : positions) {
+            changed |= regionsInTemplate.add(new BlockRegion(position.x(), position.y(), position.z()));
+        }
+        if (changed) {
+            templateComponent.absoluteTemplateRegions = new ArrayList<>(regionsInTemplate.getRegions());
             templateEntity.saveComponent(templateComponent);
         }
     }
@@ -223,14 +225,17 @@ public class StructureTemplateEditorServerSystem extends BaseComponentSystem {
     private void removeBlockPositionsFromTemplate(Set<Vector3ic> positions,
                                                   EntityRef templateEntity,
                                                   StructureTemplateOriginComponent templateComponent) {
-        List<BlockRegion> originalRegions = templateComponent.absoluteTemplateRegions;
-        Set<Vector3ic> positionsInTemplate = Sets.newHashSet();
-        positionsInTemplate.addAll(RegionMergeUtil.positionsOfRegions(originalRegions));
-        if (positionsInTemplate.containsAll(positions)) {
-            positionsInTemplate.removeAll(positions);
-            templateComponent.absoluteTemplateRegions = RegionMergeUtil.mergePositionsIntoRegions(positionsInTemplate);
-            templateEntity.saveComponent(templateComponent);
+        BlockRegionSet regionsInTemplate = new BlockRegionSet(templateComponent.absoluteTemplateRegions);
+        for (Vector3ic position : positions) {
+            if (!regionsInTemplate.contains(position.x(), position.y(), position.z())) {
+                return;
+            }
+        }
+        for (Vector3ic position : positions) {
+            regionsInTemplate.remove(new BlockRegion(position.x(), position.y(), position.z()));
         }
+        templateComponent.absoluteTemplateRegions = new ArrayList<>(regionsInTemplate.getRegions());
+        templateEntity.saveComponent(templateComponent);
     }
 
     @ReceiveEvent
@@ -656,7 +661,7 @@ public class StructureTemplateEditorServerSystem extends BaseComponentSystem {
 
             }
         }
-        RegionMergeUtil.mergeRegionsToFill(regionsToFill);
+        RegionMergeUtil.mergeRegionsToFill(regionsToFill, RegionMergeUtil.MergeMode.THOROUGH);
         regionsToFill.sort(REGION_BY_BLOCK_TYPE_COMPARATOR.thenComparing(REGION_BY_MIN_Z_COMPARATOR)
             .thenComparing(REGION_BY_MIN_X_COMPARATOR).thenComparing(REGION_BY_MIN_Y_COMPARATOR));
         return regionsToFill;
@@ -50,6 +50,8 @@ public class StructureTemplateProviderSystem extends BaseComponentSystem impleme
 
     private Map<ResourceUrn, List<EntityChanceTuple>> structureTypeToEntitiesMap;
 
+    private Map<ResourceUrn, EntityRef> prefabUrnToTemplateMap = Maps.newHashMap();
+
     @Override
     public void postBegin() {
         initIfNotAlreadyDone();
@@ -72,9 +74,7 @@ public class StructureTemplateProviderSystem extends BaseComponentSystem impleme
             if (structureTypePrefab == null) {
                 continue;
             }
-            EntityBuilder entityBuilder = entityManager.newBuilder(prefab);
-            entityBuilder.setPersistent(false);
-            EntityRef entity = entityBuilder.build();
+            EntityRef entity = createTemplate(prefab);
             List<EntityChanceTuple> entityChanceTuples = structureTypeToEntitiesMap.get(structureTypePrefab.getUrn());
             if (entityChanceTuples == null) {
                 logger.error(String.format(
@@ -89,6 +89,24 @@ public class StructureTemplateProviderSystem extends BaseComponentSystem impleme
         }
     }
 
+    private EntityRef createTemplate(Prefab prefab) {
+        EntityBuilder entityBuilder = entityManager.newBuilder(prefab);
+        entityBuilder.setPersistent(false);
+        EntityRef entity = entityBuilder.build();
+        prefabUrnToTemplateMap.put(prefab.getUrn(), entity);
+        return entity;
+    }
+
+    @Override
+    public EntityRef getTemplateOfPrefab(Prefab structureTemplatePrefab) {
+        initIfNotAlreadyDone();
+        EntityRef entity = prefabUrnToTemplateMap.get(structureTemplatePrefab.getUrn());
+        if (entity == null || !entity.exists()) {
+            entity = createTemplate(structureTemplatePrefab);
+        }
+        return entity;
+    }
+
     public EntityRef getRandomTemplateOfType(Prefab type) {
         List<EntityChanceTuple> list = getEntityChanceTuplesForPrefab(type);
         return selectRandomOneBasedOnChance(list);
@@ -0,0 +1,55 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.terasology.engine.world.block.Block;
+
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * A block predicate whose result has been computed in advance for a set of blocks, typically all registered blocks.
+ * Testing one of those blocks is a single bit test.
+ *
+ * Blocks that were not known at compile time, e.g. because they got registered later, are tested with the original
+ * predicate.
+ */
+public final class BlockIdPredicate implements Predicate<Block> {
+    private final Block[] blocksById;
+    private final BitSet matchingIds;
+    private final Predicate<Block> fallback;
+
+    private BlockIdPredicate(Block[] blocksById, BitSet matchingIds, Predicate<Block> fallback) {
+        this.blocksById = blocksById;
+        this.matchingIds = matchingIds;
+        this.fallback = fallback;
+    }
+
+    /**
+     * @param predicate the predicate to compile. Its result must only depend on the block.
+     * @param blocks the blocks to evaluate the predicate for in advance.
+     */
+    public static BlockIdPredicate compile(Predicate<Block> predicate, Iterable<Block> blocks) {
+        int maxId = -1;
+        for (Block block : blocks) {
+            maxId = Math.max(maxId, Short.toUnsignedInt(block.getId()));
+        }
+        Block[] blocksById = new Block[maxId + 1];
+        BitSet matchingIds = new BitSet(maxId + 1);
+        for (Block block : blocks) {
+            int id = Short.toUnsignedInt(block.getId());
+            blocksById[id] = block;
+            matchingIds.set(id, predicate.test(block));
+        }
+        return new BlockIdPredicate(blocksById, matchingIds, predicate);
+    }
+
+    @Override
+    public boolean test(Block block) {
+        int id = Short.toUnsignedInt(block.getId());
+        if (id < blocksById.length && blocksById[id] == block) {
+            return matchingIds.get(id);
+        }
+        return fallback.test(block);
+    }
+}
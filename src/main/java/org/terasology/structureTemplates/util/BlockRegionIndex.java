@@ -0,0 +1,172 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Spatial index of block regions that belong to values like entities. The regions get put into buckets of chunk
+ * size, so that a query only needs to look at the regions of the chunks it touches.
+ *
+ * @param <T> the type of the values the regions belong to. Values are compared via equals and hashCode.
+ */
+public final class BlockRegionIndex<T> {
+    private final Map<Vector3i, List<Entry>> entriesPerBucket = new HashMap<>();
+    private final Map<T, List<Entry>> entriesPerValue = new HashMap<>();
+
+    /**
+     * Adds a region that belongs to the given value. The region gets copied.
+     */
+    public void add(T value, BlockRegionc region) {
+        Entry entry = new Entry(new BlockRegion(region));
+        entriesPerValue.computeIfAbsent(value, key -> new ArrayList<>()).add(entry);
+        forEachBucket(entry.region, bucket ->
+            entriesPerBucket.computeIfAbsent(new Vector3i(bucket), key -> new ArrayList<>()).add(entry));
+    }
+
+    /**
+     * Removes all regions that belong to the given value.
+     */
+    public void removeAll(T value) {
+        List<Entry> entries = entriesPerValue.remove(value);
+        if (entries == null) {
+            return;
+        }
+        for (Entry entry : entries) {
+            forEachBucket(entry.region, bucket -> {
+                List<Entry> bucketEntries = entriesPerBucket.get(bucket);
+                bucketEntries.remove(entry);
+                if (bucketEntries.isEmpty()) {
+                    entriesPerBucket.remove(bucket);
+                }
+            });
+        }
+    }
+
+    /**
+     * Replaces the regions of the given value.
+     */
+    public void replaceAll(T value, Iterable<? extends BlockRegionc> regions) {
+        removeAll(value);
+        for (BlockRegionc region : regions) {
+            add(value, region);
+        }
+    }
+
+    public void clear() {
+        entriesPerBucket.clear();
+        entriesPerValue.clear();
+    }
+
+    public boolean isEmpty() {
+        return entriesPerValue.isEmpty();
+    }
+
+    public boolean contains(Vector3ic position) {
+        return contains(position.x(), position.y(), position.z());
+    }
+
+    /**
+     * @return true if the position is within a region of the index.
+     */
+    public boolean contains(int x, int y, int z) {
+        List<Entry> entries = entriesPerBucket.get(new Vector3i(Math.floorDiv(x, Chunks.SIZE_X),
+            Math.floorDiv(y, Chunks.SIZE_Y), Math.floorDiv(z, Chunks.SIZE_Z)));
+        if (entries == null) {
+            return false;
+        }
+        for (Entry entry : entries) {
+            if (entry.region.contains(x, y, z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the given region intersects a region of the index.
+     */
+    public boolean intersects(BlockRegionc region) {
+        Vector3i bucket = new Vector3i();
+        for (int bucketX = Math.floorDiv(region.minX(), Chunks.SIZE_X);
+             bucketX <= Math.floorDiv(region.maxX(), Chunks.SIZE_X); bucketX++) {
+            for (int bucketY = Math.floorDiv(region.minY(), Chunks.SIZE_Y);
+                 bucketY <= Math.floorDiv(region.maxY(), Chunks.SIZE_Y); bucketY++) {
+                for (int bucketZ = Math.floorDiv(region.minZ(), Chunks.SIZE_Z);
+                     bucketZ <= Math.floorDiv(region.maxZ(), Chunks.SIZE_Z); bucketZ++) {
+                    List<Entry> entries = entriesPerBucket.get(bucket.set(bucketX, bucketY, bucketZ));
+                    if (entries == null) {
+                        continue;
+                    }
+                    for (Entry entry : entries) {
+                        if (entry.region.intersectsBlockRegion(region)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the regions of the index that intersect the given region. The returned regions must not be modified.
+     */
+    public List<BlockRegionc> getIntersectingRegions(BlockRegionc region) {
+        Set<Entry> foundEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<BlockRegionc> result = new ArrayList<>();
+        forEachBucket(region, bucket -> {
+            List<Entry> entries = entriesPerBucket.get(bucket);
+            if (entries == null) {
+                return;
+            }
+            for (Entry entry : entries) {
+                if (entry.region.intersectsBlockRegion(region) && foundEntries.add(entry)) {
+                    result.add(entry.region);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Calls the consumer with the positions of all buckets the region touches. The passed vector gets reused.
+     */
+    private static void forEachBucket(BlockRegionc region, Consumer<Vector3i> consumer) {
+        Vector3i bucket = new Vector3i();
+        for (int bucketX = Math.floorDiv(region.minX(), Chunks.SIZE_X);
+             bucketX <= Math.floorDiv(region.maxX(), Chunks.SIZE_X); bucketX++) {
+            for (int bucketY = Math.floorDiv(region.minY(), Chunks.SIZE_Y);
+                 bucketY <= Math.floorDiv(region.maxY(), Chunks.SIZE_Y); bucketY++) {
+                for (int bucketZ = Math.floorDiv(region.minZ(), Chunks.SIZE_Z);
+                     bucketZ <= Math.floorDiv(region.maxZ(), Chunks.SIZE_Z); bucketZ++) {
+                    consumer.accept(bucket.set(bucketX, bucketY, bucketZ));
+                }
+            }
+        }
+    }
+
+    /**
+     * Compared by identity, as the same region may be added multiple times.
+     */
+    private static final class Entry {
+        private final BlockRegion region;
+
+        Entry(BlockRegion region) {
+            this.region = region;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A set of block positions that is stored as a list of non overlapping regions.
+ *
+ * Adding or removing a position or region only changes the regions that it touches, so the cost depends on the
+ * number of regions instead of on the number of positions. Added regions get merged with neighbouring regions they
+ * form a box with.
+ */
+public final class BlockRegionSet {
+    private final List<BlockRegion> regions;
+
+    /**
+     * @param regions regions that must not overlap, e.g. ones from {@link RegionMergeUtil}. They get copied.
+     */
+    public BlockRegionSet(List<? extends BlockRegionc> regions) {
+        this.regions = regions.stream()
+                .map(BlockRegion::new)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * @return the regions of the set. They must not be modified.
+     */
+    public List<BlockRegion> getRegions() {
+        return Collections.unmodifiableList(regions);
+    }
+
+    public boolean contains(int x, int y, int z) {
+        for (BlockRegion region : regions) {
+            if (region.contains(x, y, z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds all positions of the region to the set.
+     *
+     * @return true if the set changed.
+     */
+    public boolean add(BlockRegionc regionToAdd) {
+        List<BlockRegion> missingParts = new ArrayList<>();
+        missingParts.add(new BlockRegion(regionToAdd));
+        for (BlockRegion region : regions) {
+            if (!region.intersectsBlockRegion(regionToAdd)) {
+                continue;
+            }
+            List<BlockRegion> remainingParts = new ArrayList<>();
+            for (BlockRegion part : missingParts) {
+                subtract(part, region, remainingParts);
+            }
+            missingParts = remainingParts;
+        }
+        for (BlockRegion part : missingParts) {
+            addWithMerging(part);
+        }
+        return !missingParts.isEmpty();
+    }
+
+    /**
+     * Removes all positions of the region from the set.
+     *
+     * @return true if the set changed.
+     */
+    public boolean remove(BlockRegionc regionToRemove) {
+        List<BlockRegion> newRegions = new ArrayList<>(regions.size());
+        boolean changed = false;
+        for (BlockRegion region : regions) {
+            if (region.intersectsBlockRegion(regionToRemove)) {
+                subtract(region, regionToRemove, newRegions);
+                changed = true;
+            } else {
+                newRegions.add(region);
+            }
+        }
+        if (changed) {
+            regions.clear();
+            regions.addAll(newRegions);
+        }
+        return changed;
+    }
+
+    /**
+     * Merges the region with regions of the set it forms a box with, as long as that is possible, and adds the
+     * result. The region must not overlap with the regions of the set.
+     */
+    private void addWithMerging(BlockRegion region) {
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < regions.size(); i++) {
+                if (formBox(regions.get(i), region)) {
+                    region.union(regions.get(i));
+                    regions.set(i, regions.get(regions.size() - 1));
+                    regions.remove(regions.size() - 1);
+                    merged = true;
+                    break;
+                }
+            }
+        }
+        regions.add(region);
+    }
+
+    /**
+     * @return true if the two non overlapping regions touch with faces of the same size.
+     */
+    static boolean formBox(BlockRegionc a, BlockRegionc b) {
+        boolean sameX = a.minX() == b.minX() && a.maxX() == b.maxX();
+        boolean sameY = a.minY() == b.minY() && a.maxY() == b.maxY();
+        boolean sameZ = a.minZ() == b.minZ() && a.maxZ() == b.maxZ();
+        if (sameY && sameZ) {
+            return a.maxX() + 1 == b.minX() || b.maxX() + 1 == a.minX();
+        }
+        if (sameX && sameZ) {
+            return a.maxY() + 1 == b.minY() || b.maxY() + 1 == a.minY();
+        }
+        if (sameX && sameY) {
+            return a.maxZ() + 1 == b.minZ() || b.maxZ() + 1 == a.minZ();
+        }
+        return false;
+    }
+
+    /**
+     * Adds up to 6 regions to the result that together contain exactly the positions of the region that are not
+     * within the hole.
+     */
+    static void subtract(BlockRegionc region, BlockRegionc hole, List<BlockRegion> result) {
+        if (!region.intersectsBlockRegion(hole)) {
+            result.add(new BlockRegion(region));
+            return;
+        }
+        int minX = Math.max(region.minX(), hole.minX());
+        int maxX = Math.min(region.maxX(), hole.maxX());
+        int minY = Math.max(region.minY(), hole.minY());
+        int maxY = Math.min(region.maxY(), hole.maxY());
+        int minZ = Math.max(region.minZ(), hole.minZ());
+        int maxZ = Math.min(region.maxZ(), hole.maxZ());
+        // Slabs below and above the hole
+        if (region.minY() < minY) {
+            result.add(new BlockRegion(region.minX(), region.minY(), region.minZ(),
+                    region.maxX(), minY - 1, region.maxZ()));
+        }
+        if (region.maxY() > maxY) {
+            result.add(new BlockRegion(region.minX(), maxY + 1, region.minZ(),
+                    region.maxX(), region.maxY(), region.maxZ()));
+        }
+        // Within the height of the hole: slabs in front and behind the hole
+        if (region.minZ() < minZ) {
+            result.add(new BlockRegion(region.minX(), minY, region.minZ(), region.maxX(), maxY, minZ - 1));
+        }
+        if (region.maxZ() > maxZ) {
+            result.add(new BlockRegion(region.minX(), minY, maxZ + 1, region.maxX(), maxY, region.maxZ()));
+        }
+        // Within the height and depth of the hole: the parts left and right of the hole
+        if (region.minX() < minX) {
+            result.add(new BlockRegion(region.minX(), minY, minZ, minX - 1, maxY, maxZ));
+        }
+        if (region.maxX() > maxX) {
+            result.add(new BlockRegion(maxX + 1, minY, minZ, region.maxX(), maxY, maxZ));
+        }
+    }
+}
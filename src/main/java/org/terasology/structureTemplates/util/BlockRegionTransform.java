@@ -21,6 +21,8 @@ import org.terasology.structureTemplates.components.BlockRegionTransformComponen
  * Describes a transformation for a region of blocks like a rotation of 90 degrees or a movement by an offset.
  */
 public final class BlockRegionTransform {
+    private static final BlockTransformTable BLOCK_TRANSFORM_TABLE = new BlockTransformTable();
+
     /**
      * How often it will be rotated around the y axis by 90 degree. Must be either 0, 1, 2 or 3.
      */
@@ -78,19 +80,36 @@ public final class BlockRegionTransform {
     }
 
     public Block transformBlock(Block block) {
+        return BLOCK_TRANSFORM_TABLE.transformBlock(block, counterClockWiseHorizontal90DegreeRotations);
+    }
+
+    /**
+     * Forgets the rotated blocks that {@link #transformBlock(Block)} remembers, so that the blocks of a game that
+     * ended can get garbage collected.
+     */
+    public static void clearBlockTransformTable() {
+        BLOCK_TRANSFORM_TABLE.clear();
+    }
+
+    static Block transformBlock(Block block, int counterClockWiseHorizontal90DegreeRotations) {
         BlockFamily blockFamily = block.getBlockFamily();
         if (blockFamily instanceof SideDefinedBlockFamily) {
             SideDefinedBlockFamily sideDefinedBlockFamily = (SideDefinedBlockFamily) blockFamily;
-            return sideDefinedBlockFamily.getBlockForSide(transformSide(block.getDirection()));
+            return sideDefinedBlockFamily.getBlockForSide(transformSide(block.getDirection(),
+                    counterClockWiseHorizontal90DegreeRotations));
         } else if (blockFamily instanceof AttachedToSurfaceFamily) {
             // TODO add some proper method to block famility to not have to do this hack
             return blockFamily.getBlockForPlacement(new BlockPlacementData(new Vector3i(),
-                    transformSide(block.getDirection()), new Vector3f()));
+                    transformSide(block.getDirection(), counterClockWiseHorizontal90DegreeRotations), new Vector3f()));
         }
         return block;
     }
 
     public Side transformSide(Side side) {
+        return transformSide(side, counterClockWiseHorizontal90DegreeRotations);
+    }
+
+    private static Side transformSide(Side side, int counterClockWiseHorizontal90DegreeRotations) {
         return side.yawClockwise(4 - counterClockWiseHorizontal90DegreeRotations);
     }
 
@@ -112,6 +131,27 @@ public final class BlockRegionTransform {
         return result;
     }
 
+    /**
+     * @return how often this transformation rotates counter clockwise by 90 degrees around the y axis (0 to 3).
+     */
+    public int getCounterClockWiseHorizontal90DegreeRotations() {
+        return counterClockWiseHorizontal90DegreeRotations;
+    }
+
+    /**
+     * @return the offset that gets added after the rotation.
+     */
+    public Vector3ic getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return a transformation with the same rotation as this one, but without any movement.
+     */
+    public BlockRegionTransform withoutOffset() {
+        return new BlockRegionTransform(counterClockWiseHorizontal90DegreeRotations, new Vector3i(0, 0, 0));
+    }
+
     public Quaternionf transformRotation(Quaternionf rotation) {
         Side side = transformSide(Side.FRONT);
         Quaternionf calculatedRotation = new Quaternionf(0, 0, 0, 0);
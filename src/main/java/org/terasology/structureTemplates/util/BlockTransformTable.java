@@ -0,0 +1,78 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.terasology.engine.world.block.Block;
+
+import java.util.function.BiFunction;
+
+/**
+ * Lazily filled lookup table from block id and rotation to the rotated block, used by
+ * {@link BlockRegionTransform#transformBlock(Block)}.
+ *
+ * Each entry remembers the block it got computed for. When the block registry changes and an id refers to another
+ * block, the entry gets computed again. Races between threads can only cause an entry to be computed twice.
+ *
+ * The table keeps the blocks of the current game alive, so it must be cleared when the game ends.
+ */
+final class BlockTransformTable {
+    private static final int ROTATIONS = 4;
+    private static final int INITIAL_SIZE = 256;
+
+    /**
+     * Determines the block for a block and a number of counter clockwise rotations.
+     */
+    private final BiFunction<Block, Integer, Block> rotation;
+
+    private volatile Entry[] entries = new Entry[INITIAL_SIZE];
+
+    BlockTransformTable() {
+        this(BlockRegionTransform::transformBlock);
+    }
+
+    BlockTransformTable(BiFunction<Block, Integer, Block> rotation) {
+        this.rotation = rotation;
+    }
+
+    Block transformBlock(Block block, int rotations) {
+        int id = Short.toUnsignedInt(block.getId());
+        Entry[] currentEntries = entries;
+        Entry entry = id < currentEntries.length ? currentEntries[id] : null;
+        if (entry == null || entry.block != block) {
+            entry = new Entry(block, rotation);
+            store(id, entry);
+        }
+        return entry.rotatedBlocks[Math.floorMod(rotations, ROTATIONS)];
+    }
+
+    /**
+     * Removes all entries, so that the blocks they reference can get garbage collected.
+     */
+    synchronized void clear() {
+        entries = new Entry[INITIAL_SIZE];
+    }
+
+    private synchronized void store(int id, Entry entry) {
+        Entry[] currentEntries = entries;
+        if (id >= currentEntries.length) {
+            Entry[] grownEntries = new Entry[Math.max(id + 1, currentEntries.length * 2)];
+            System.arraycopy(currentEntries, 0, grownEntries, 0, currentEntries.length);
+            grownEntries[id] = entry;
+            entries = grownEntries;
+        } else {
+            currentEntries[id] = entry;
+        }
+    }
+
+    private static final class Entry {
+        private final Block block;
+        private final Block[] rotatedBlocks = new Block[ROTATIONS];
+
+        Entry(Block block, BiFunction<Block, Integer, Block> rotation) {
+            this.block = block;
+            for (int rotations = 0; rotations < ROTATIONS; rotations++) {
+                rotatedBlocks[rotations] = rotation.apply(block, rotations);
+            }
+        }
+    }
+}
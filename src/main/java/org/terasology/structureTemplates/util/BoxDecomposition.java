@@ -0,0 +1,165 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A voxel grid that can be decomposed into boxes that each contain cells of only one value.
+ *
+ * The decomposition is greedy: Starting at the lowest cell that is not covered yet, a box grows as far as possible
+ * along a first axis, then along a second and then along a third one. The order of the axes influences the number of
+ * boxes, so {@link #decompose(int, int, int)} lets the caller pick it.
+ *
+ * @param <T> the type of the cell values. Values are compared via {@link Object#equals(Object)}.
+ */
+final class BoxDecomposition<T> {
+    /**
+     * Bounding boxes with more cells don't get a grid, as it would need too much memory.
+     */
+    static final long MAX_VOLUME = 1 << 24;
+
+    static final int X = 0;
+    static final int Y = 1;
+    static final int Z = 2;
+
+    private final int[] min = new int[3];
+    private final int[] size = new int[3];
+    private final int[] stride = new int[3];
+    private final Object[] cells;
+
+    /**
+     * @param boundingBox the region of the grid. Check it with {@link #canDecompose(BlockRegionc)} first.
+     */
+    BoxDecomposition(BlockRegionc boundingBox) {
+        min[X] = boundingBox.minX();
+        min[Y] = boundingBox.minY();
+        min[Z] = boundingBox.minZ();
+        size[X] = boundingBox.getSizeX();
+        size[Y] = boundingBox.getSizeY();
+        size[Z] = boundingBox.getSizeZ();
+        stride[X] = 1;
+        stride[Y] = size[X];
+        stride[Z] = size[X] * size[Y];
+        cells = new Object[size[X] * size[Y] * size[Z]];
+    }
+
+    static boolean canDecompose(BlockRegionc boundingBox) {
+        long volume = (long) boundingBox.getSizeX() * boundingBox.getSizeY() * boundingBox.getSizeZ();
+        return volume <= MAX_VOLUME;
+    }
+
+    /**
+     * Sets all cells of the region, which must be within the bounding box of the grid, to the value.
+     */
+    void fill(BlockRegionc region, T value) {
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                int index = indexOf(region.minX(), y, z);
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    cells[index++] = value;
+                }
+            }
+        }
+    }
+
+    private int indexOf(int x, int y, int z) {
+        return (x - min[X]) * stride[X] + (y - min[Y]) * stride[Y] + (z - min[Z]) * stride[Z];
+    }
+
+    /**
+     * Covers all cells that have a value with boxes. The boxes don't overlap and contain only cells of one value.
+     *
+     * @param firstAxis  the axis ({@link #X}, {@link #Y} or {@link #Z}) along which boxes grow first.
+     * @param secondAxis the axis along which boxes grow second.
+     * @param thirdAxis  the axis along which boxes grow last.
+     */
+    List<Box<T>> decompose(int firstAxis, int secondAxis, int thirdAxis) {
+        int[] axesInGrowOrder = {firstAxis, secondAxis, thirdAxis};
+        boolean[] covered = new boolean[cells.length];
+        List<Box<T>> boxes = new ArrayList<>();
+        int[] position = new int[3];
+        int[] extent = new int[3];
+        // Scan with the first axis innermost, so that the cells before a seed along all axes are covered already
+        for (position[thirdAxis] = 0; position[thirdAxis] < size[thirdAxis]; position[thirdAxis]++) {
+            for (position[secondAxis] = 0; position[secondAxis] < size[secondAxis]; position[secondAxis]++) {
+                for (position[firstAxis] = 0; position[firstAxis] < size[firstAxis]; position[firstAxis]++) {
+                    int seed = position[X] * stride[X] + position[Y] * stride[Y] + position[Z] * stride[Z];
+                    Object value = cells[seed];
+                    if (value == null || covered[seed]) {
+                        continue;
+                    }
+                    extent[X] = 1;
+                    extent[Y] = 1;
+                    extent[Z] = 1;
+                    for (int axis : axesInGrowOrder) {
+                        while (position[axis] + extent[axis] < size[axis]
+                            && canCoverSlab(seed + extent[axis] * stride[axis], axis, extent, value, covered)) {
+                            extent[axis]++;
+                        }
+                    }
+                    markCovered(seed, extent, covered);
+                    boxes.add(createBox(position, extent, value));
+                }
+            }
+        }
+        return boxes;
+    }
+
+    /**
+     * @return true if all cells of the slab, that starts at the given index and has the extent of the box along the
+     * two other axes, are not covered yet and have the value.
+     */
+    private boolean canCoverSlab(int slabStart, int slabAxis, int[] extent, Object value, boolean[] covered) {
+        int axisU = (slabAxis + 1) % 3;
+        int axisV = (slabAxis + 2) % 3;
+        for (int v = 0; v < extent[axisV]; v++) {
+            int index = slabStart + v * stride[axisV];
+            for (int u = 0; u < extent[axisU]; u++) {
+                if (covered[index] || !value.equals(cells[index])) {
+                    return false;
+                }
+                index += stride[axisU];
+            }
+        }
+        return true;
+    }
+
+    private void markCovered(int seed, int[] extent, boolean[] covered) {
+        for (int z = 0; z < extent[Z]; z++) {
+            for (int y = 0; y < extent[Y]; y++) {
+                int index = seed + y * stride[Y] + z * stride[Z];
+                for (int x = 0; x < extent[X]; x++) {
+                    covered[index++] = true;
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Box<T> createBox(int[] position, int[] extent, Object value) {
+        int minX = min[X] + position[X];
+        int minY = min[Y] + position[Y];
+        int minZ = min[Z] + position[Z];
+        BlockRegion region = new BlockRegion(minX, minY, minZ,
+            minX + extent[X] - 1, minY + extent[Y] - 1, minZ + extent[Z] - 1);
+        return new Box<>(region, (T) value);
+    }
+
+    /**
+     * A box of a decomposition with the value of all its cells.
+     */
+    static final class Box<T> {
+        final BlockRegion region;
+        final T value;
+
+        Box(BlockRegion region, T value) {
+            this.region = region;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.joml.Vector3ic;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent.RegionToFill;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * The regions of a {@link SpawnBlockRegionsComponent} with a rotation and the matching block transformation already
+ * applied. Spawning the regions at a certain location only requires moving them by the offset of the
+ * {@link BlockRegionTransform}.
+ */
+public final class CompiledSpawnPlan {
+    private final int counterClockWiseHorizontal90DegreeRotations;
+    private final BlockRegion[] rotatedRegions;
+    private final Block[] transformedBlocks;
+    private final boolean[] air;
+    private final BlockRegion rotatedBoundingBox;
+
+    private CompiledSpawnPlan(int counterClockWiseHorizontal90DegreeRotations, BlockRegion[] rotatedRegions,
+                              Block[] transformedBlocks, boolean[] air) {
+        this.counterClockWiseHorizontal90DegreeRotations = counterClockWiseHorizontal90DegreeRotations;
+        this.rotatedRegions = rotatedRegions;
+        this.transformedBlocks = transformedBlocks;
+        this.air = air;
+        BlockRegion boundingBox = null;
+        for (BlockRegion region : rotatedRegions) {
+            boundingBox = boundingBox == null ? new BlockRegion(region) : boundingBox.union(region);
+        }
+        this.rotatedBoundingBox = boundingBox;
+    }
+
+    /**
+     * @param transform only the rotation of the transformation is used, the offset gets ignored.
+     */
+    public static CompiledSpawnPlan compile(SpawnBlockRegionsComponent component, BlockRegionTransform transform) {
+        BlockRegionTransform rotation = transform.withoutOffset();
+        List<RegionToFill> regionsToFill = component.regionsToFill;
+        BlockRegion[] rotatedRegions = new BlockRegion[regionsToFill.size()];
+        Block[] transformedBlocks = new Block[regionsToFill.size()];
+        boolean[] air = new boolean[regionsToFill.size()];
+        for (int i = 0; i < regionsToFill.size(); i++) {
+            RegionToFill regionToFill = regionsToFill.get(i);
+            rotatedRegions[i] = rotation.transformRegion(regionToFill.region);
+            transformedBlocks[i] = rotation.transformBlock(regionToFill.blockType);
+            air[i] = isAir(regionToFill.blockType);
+        }
+        return new CompiledSpawnPlan(rotation.getCounterClockWiseHorizontal90DegreeRotations(), rotatedRegions,
+                transformedBlocks, air);
+    }
+
+    public int getCounterClockWiseHorizontal90DegreeRotations() {
+        return counterClockWiseHorizontal90DegreeRotations;
+    }
+
+    /**
+     * @param offset the offset of the {@link BlockRegionTransform} the structure gets spawned with.
+     * @return a new region that encloses all regions of the plan, or null if the plan has no regions.
+     */
+    public BlockRegion getBoundingBox(Vector3ic offset) {
+        return rotatedBoundingBox != null ? new BlockRegion(rotatedBoundingBox).translate(offset) : null;
+    }
+
+    /**
+     * Calls the consumer with each absolute region and its block, in the order of the regions of the component.
+     * The region passed to the consumer is a new object that the consumer may keep.
+     *
+     * @param offset the offset of the {@link BlockRegionTransform} the structure gets spawned with.
+     * @param ignoreAir if true, regions that are filled with air are skipped.
+     */
+    public void forEachRegion(Vector3ic offset, boolean ignoreAir, BiConsumer<BlockRegion, Block> consumer) {
+        for (int i = 0; i < rotatedRegions.length; i++) {
+            if (ignoreAir && air[i]) {
+                continue;
+            }
+            consumer.accept(new BlockRegion(rotatedRegions[i]).translate(offset), transformedBlocks[i]);
+        }
+    }
+
+    /**
+     * Adds all absolute regions of the plan to the given map.
+     */
+    public void fillRegions(RegionBlockMap blocksToPlace, Vector3ic offset, boolean ignoreAir) {
+        forEachRegion(offset, ignoreAir, blocksToPlace::fillRegion);
+    }
+
+    private static boolean isAir(Block block) {
+        return block.getURI().getBlockFamilyDefinitionUrn().equals(BlockManager.AIR_ID.getBlockFamilyDefinitionUrn());
+    }
+}
@@ -3,37 +3,26 @@
 package org.terasology.structureTemplates.util;
 
 import org.joml.Vector3ic;
-import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.world.block.BlockRegion;
-import org.terasology.structureTemplates.components.ProtectedRegionsComponent;
 
 import java.util.Collection;
-import java.util.List;
 
 public final class ProtectedRegionUtility {
 
     private ProtectedRegionUtility() { }
 
     /**
-     * Checks if the specified positions are completely inside the given regionEntity.
-     *
-     * @param positions
-     * @param regionEntity
-     * @return
+     * @return the smallest region that contains all positions, or null if there are no positions.
      */
-    public static boolean isInProtectedRegion(Collection<? extends Vector3ic> positions, EntityRef regionEntity) {
-        ProtectedRegionsComponent protectedRegionsComponent =
-                regionEntity.getComponent(ProtectedRegionsComponent.class);
-        List<BlockRegion> protectedRegions = protectedRegionsComponent.regions;
-        if (protectedRegions != null) {
-            for (BlockRegion region : protectedRegions) {
-                for (Vector3ic position : positions) {
-                    if (region.contains(position)) {
-                        return true;
-                    }
-                }
+    public static BlockRegion getBoundingBox(Collection<? extends Vector3ic> positions) {
+        BlockRegion boundingBox = null;
+        for (Vector3ic position : positions) {
+            if (boundingBox == null) {
+                boundingBox = new BlockRegion(position.x(), position.y(), position.z());
+            } else {
+                boundingBox.union(position.x(), position.y(), position.z());
             }
         }
-        return false;
+        return boundingBox;
     }
 }
@@ -0,0 +1,264 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read only position to block map that is backed by regions filled with a single block type each.
+ *
+ * The regions get split at chunk borders and the entries are iterated chunk by chunk. This makes it possible to pass
+ * whole structures to {@link WorldProvider#setBlocks(Map)} without expanding every region into a hash map first.
+ *
+ * When regions overlap, the region that got added last determines the block of a position, just like repeated
+ * {@link Map#put(Object, Object)} calls would.
+ */
+public final class RegionBlockMap extends AbstractMap<Vector3ic, Block> {
+    private final Map<Vector3i, List<RegionFill>> fillsPerChunk = new LinkedHashMap<>();
+    private int size = -1;
+
+    /**
+     * Sets the block of all positions in the given absolute region.
+     */
+    public void fillRegion(BlockRegionc region, Block block) {
+        int minChunkX = Math.floorDiv(region.minX(), Chunks.SIZE_X);
+        int minChunkY = Math.floorDiv(region.minY(), Chunks.SIZE_Y);
+        int minChunkZ = Math.floorDiv(region.minZ(), Chunks.SIZE_Z);
+        int maxChunkX = Math.floorDiv(region.maxX(), Chunks.SIZE_X);
+        int maxChunkY = Math.floorDiv(region.maxY(), Chunks.SIZE_Y);
+        int maxChunkZ = Math.floorDiv(region.maxZ(), Chunks.SIZE_Z);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+                for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                    BlockRegion part = new BlockRegion(
+                            Math.max(region.minX(), chunkX * Chunks.SIZE_X),
+                            Math.max(region.minY(), chunkY * Chunks.SIZE_Y),
+                            Math.max(region.minZ(), chunkZ * Chunks.SIZE_Z),
+                            Math.min(region.maxX(), chunkX * Chunks.SIZE_X + Chunks.SIZE_X - 1),
+                            Math.min(region.maxY(), chunkY * Chunks.SIZE_Y + Chunks.SIZE_Y - 1),
+                            Math.min(region.maxZ(), chunkZ * Chunks.SIZE_Z + Chunks.SIZE_Z - 1));
+                    fillsPerChunk.computeIfAbsent(new Vector3i(chunkX, chunkY, chunkZ), k -> new ArrayList<>())
+                            .add(new RegionFill(part, block));
+                }
+            }
+        }
+        size = -1;
+    }
+
+    @Override
+    public Block get(Object key) {
+        if (!(key instanceof Vector3ic)) {
+            return null;
+        }
+        Vector3ic pos = (Vector3ic) key;
+        List<RegionFill> fills = fillsPerChunk.get(new Vector3i(
+                Math.floorDiv(pos.x(), Chunks.SIZE_X),
+                Math.floorDiv(pos.y(), Chunks.SIZE_Y),
+                Math.floorDiv(pos.z(), Chunks.SIZE_Z)));
+        if (fills == null) {
+            return null;
+        }
+        for (int i = fills.size() - 1; i >= 0; i--) {
+            RegionFill fill = fills.get(i);
+            if (fill.region.contains(pos)) {
+                return fill.block;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            int count = 0;
+            for (List<RegionFill> fills : fillsPerChunk.values()) {
+                for (int i = 0; i < fills.size(); i++) {
+                    List<BlockRegion> shadowingRegions = shadowingRegions(fills, i);
+                    BlockRegion region = fills.get(i).region;
+                    if (shadowingRegions.isEmpty()) {
+                        count += region.volume();
+                        continue;
+                    }
+                    for (int x = region.minX(); x <= region.maxX(); x++) {
+                        for (int y = region.minY(); y <= region.maxY(); y++) {
+                            for (int z = region.minZ(); z <= region.maxZ(); z++) {
+                                if (!isShadowed(shadowingRegions, x, y, z)) {
+                                    count++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            size = count;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return fillsPerChunk.isEmpty();
+    }
+
+    @Override
+    public Set<Entry<Vector3ic, Block>> entrySet() {
+        return new AbstractSet<Entry<Vector3ic, Block>>() {
+            @Override
+            public Iterator<Entry<Vector3ic, Block>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return RegionBlockMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * @return the regions that got added after the region at the given index and that overlap with it.
+     */
+    private static List<BlockRegion> shadowingRegions(List<RegionFill> fillsOfChunk, int index) {
+        List<BlockRegion> result = new ArrayList<>();
+        BlockRegion region = fillsOfChunk.get(index).region;
+        for (int i = index + 1; i < fillsOfChunk.size(); i++) {
+            BlockRegion laterRegion = fillsOfChunk.get(i).region;
+            if (laterRegion.intersectsBlockRegion(region)) {
+                result.add(laterRegion);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isShadowed(List<BlockRegion> shadowingRegions, int x, int y, int z) {
+        for (BlockRegion shadowingRegion : shadowingRegions) {
+            if (shadowingRegion.contains(x, y, z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class RegionFill {
+        private final BlockRegion region;
+        private final Block block;
+
+        RegionFill(BlockRegion region, Block block) {
+            this.region = region;
+            this.block = block;
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<Vector3ic, Block>> {
+        private final Iterator<List<RegionFill>> chunkIterator = fillsPerChunk.values().iterator();
+        private List<RegionFill> fillsOfChunk;
+        private int fillIndex;
+        private RegionFill fill;
+        private List<BlockRegion> shadowingRegions;
+        private int x;
+        private int y;
+        private int z;
+        private boolean hasNext;
+
+        EntryIterator() {
+            hasNext = nextFill();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public Entry<Vector3ic, Block> next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            Entry<Vector3ic, Block> entry = new SimpleImmutableEntry<>(new Vector3i(x, y, z), fill.block);
+            hasNext = advance();
+            return entry;
+        }
+
+        private boolean advance() {
+            do {
+                if (!nextPositionInFill() && !nextFill()) {
+                    return false;
+                }
+            } while (isShadowed(shadowingRegions, x, y, z));
+            return true;
+        }
+
+        private boolean nextPositionInFill() {
+            BlockRegion region = fill.region;
+            if (z < region.maxZ()) {
+                z++;
+                return true;
+            }
+            z = region.minZ();
+            if (y < region.maxY()) {
+                y++;
+                return true;
+            }
+            y = region.minY();
+            if (x < region.maxX()) {
+                x++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean nextFill() {
+            do {
+                if (fillsOfChunk != null && fillIndex + 1 < fillsOfChunk.size()) {
+                    fillIndex++;
+                } else if (chunkIterator.hasNext()) {
+                    fillsOfChunk = chunkIterator.next();
+                    fillIndex = 0;
+                } else {
+                    return false;
+                }
+                fill = fillsOfChunk.get(fillIndex);
+                shadowingRegions = shadowingRegions(fillsOfChunk, fillIndex);
+                x = fill.region.minX();
+                y = fill.region.minY();
+                z = fill.region.minZ();
+            } while (isShadowed(shadowingRegions, x, y, z) && !nextPositionInFillOrSkip());
+            return true;
+        }
+
+        /**
+         * Moves to the next position of the current fill that is not shadowed by a later fill.
+         *
+         * @return false if there is no such position in the current fill.
+         */
+        private boolean nextPositionInFillOrSkip() {
+            while (nextPositionInFill()) {
+                if (!isShadowed(shadowingRegions, x, y, z)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -4,6 +4,7 @@ package org.terasology.structureTemplates.util;
 
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
+import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockRegion;
 import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent;
 
@@ -20,26 +21,115 @@ import java.util.Set;
  * methods of this class to merge them together to fewer regions of bigger size, covering the same blocks.
  */
 public final class RegionMergeUtil {
+    private static final int[][] AXIS_ORDERS = {
+        {BoxDecomposition.X, BoxDecomposition.Y, BoxDecomposition.Z},
+        {BoxDecomposition.X, BoxDecomposition.Z, BoxDecomposition.Y},
+        {BoxDecomposition.Y, BoxDecomposition.X, BoxDecomposition.Z},
+        {BoxDecomposition.Y, BoxDecomposition.Z, BoxDecomposition.X},
+        {BoxDecomposition.Z, BoxDecomposition.X, BoxDecomposition.Y},
+        {BoxDecomposition.Z, BoxDecomposition.Y, BoxDecomposition.X}
+    };
+
     private RegionMergeUtil() {
 
     }
 
+    /**
+     * How much effort gets spent on finding few regions.
+     */
+    public enum MergeMode {
+        /**
+         * Decomposes the blocks into boxes once, growing the boxes along X, then Z and then Y.
+         */
+        FAST,
+        /**
+         * Decomposes the blocks once for every order of the axes and keeps the result with the fewest regions. Takes
+         * about six times as long as {@link #FAST}.
+         */
+        THOROUGH
+    }
+
+    /**
+     * Same as {@link #mergeRegionsToFill(List, MergeMode)} with {@link MergeMode#FAST}.
+     */
     public static void mergeRegionsToFill(List<SpawnBlockRegionsComponent.RegionToFill> regionsToFill) {
-        mergeRegionsToFillByX(regionsToFill);
-        mergeRegionsToFillByY(regionsToFill);
-        mergeRegionsToFillByZ(regionsToFill);
+        mergeRegionsToFill(regionsToFill, MergeMode.FAST);
     }
 
+    /**
+     * Replaces the regions with fewer regions that fill the same blocks with the same block types.
+     *
+     * @param regionsToFill regions that must not overlap.
+     */
+    public static void mergeRegionsToFill(List<SpawnBlockRegionsComponent.RegionToFill> regionsToFill,
+                                          MergeMode mode) {
+        if (regionsToFill.isEmpty()) {
+            return;
+        }
+        BlockRegion boundingBox = new BlockRegion(regionsToFill.get(0).region);
+        for (SpawnBlockRegionsComponent.RegionToFill regionToFill : regionsToFill) {
+            boundingBox.union(regionToFill.region);
+        }
+        if (!BoxDecomposition.canDecompose(boundingBox)) {
+            mergeRegionsToFillByX(regionsToFill);
+            mergeRegionsToFillByY(regionsToFill);
+            mergeRegionsToFillByZ(regionsToFill);
+            return;
+        }
+        BoxDecomposition<Block> decomposition = new BoxDecomposition<>(boundingBox);
+        for (SpawnBlockRegionsComponent.RegionToFill regionToFill : regionsToFill) {
+            decomposition.fill(regionToFill.region, regionToFill.blockType);
+        }
+        regionsToFill.clear();
+        for (BoxDecomposition.Box<Block> box : decompose(decomposition, mode)) {
+            SpawnBlockRegionsComponent.RegionToFill regionToFill = new SpawnBlockRegionsComponent.RegionToFill();
+            regionToFill.region = box.region;
+            regionToFill.blockType = box.value;
+            regionsToFill.add(regionToFill);
+        }
+    }
 
     public static List<BlockRegion> mergePositionsIntoRegions(Set<? extends Vector3ic> positionsInTemplate) {
         List<BlockRegion> newTemplateRegions = new ArrayList<>();
+        if (positionsInTemplate.isEmpty()) {
+            return newTemplateRegions;
+        }
+        BlockRegion boundingBox = new BlockRegion(positionsInTemplate.iterator().next());
+        for (Vector3ic position : positionsInTemplate) {
+            boundingBox.union(position);
+        }
+        if (!BoxDecomposition.canDecompose(boundingBox)) {
+            for (Vector3ic position : positionsInTemplate) {
+                newTemplateRegions.add(new BlockRegion(position, position));
+            }
+            RegionMergeUtil.mergeSingleBlockRegions(newTemplateRegions);
+            return newTemplateRegions;
+        }
+        BoxDecomposition<Boolean> decomposition = new BoxDecomposition<>(boundingBox);
         for (Vector3ic position : positionsInTemplate) {
-            newTemplateRegions.add(new BlockRegion(position, position));
+            decomposition.fill(new BlockRegion(position), Boolean.TRUE);
+        }
+        for (BoxDecomposition.Box<Boolean> box : decompose(decomposition, MergeMode.FAST)) {
+            newTemplateRegions.add(box.region);
         }
-        RegionMergeUtil.mergeSingleBlockRegions(newTemplateRegions);
         return newTemplateRegions;
     }
 
+    private static <T> List<BoxDecomposition.Box<T>> decompose(BoxDecomposition<T> decomposition, MergeMode mode) {
+        if (mode == MergeMode.FAST) {
+            // Y last, as templates tend to be wider than high
+            return decomposition.decompose(BoxDecomposition.X, BoxDecomposition.Z, BoxDecomposition.Y);
+        }
+        List<BoxDecomposition.Box<T>> best = null;
+        for (int[] axisOrder : AXIS_ORDERS) {
+            List<BoxDecomposition.Box<T>> boxes = decomposition.decompose(axisOrder[0], axisOrder[1], axisOrder[2]);
+            if (best == null || boxes.size() < best.size()) {
+                best = boxes;
+            }
+        }
+        return best;
+    }
+
     private static void mergeSingleBlockRegions(List<BlockRegion> regions) {
         mergeRegionsByX(regions);
         mergeRegionsByY(regions);
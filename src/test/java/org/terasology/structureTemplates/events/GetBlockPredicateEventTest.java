@@ -0,0 +1,82 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.events;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.block.Block;
+
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link GetBlockPredicateEvent}.
+ */
+public class GetBlockPredicateEventTest {
+
+    private final Predicate<Block> isLiquid = Block::isLiquid;
+    private final Predicate<Block> isPenetrable = Block::isPenetrable;
+
+    @Test
+    public void testUnrestrictedPredicateMatchesAnyBlock() {
+        GetBlockPredicateEvent event = new GetBlockPredicateEvent();
+
+        assertTrue(event.predicate.test(createBlock(false, false)));
+        assertTrue(event.isCacheable());
+    }
+
+    @Test
+    public void testSingleConditionIsReturnedAsItIs() {
+        GetBlockPredicateEvent event = new GetBlockPredicateEvent();
+
+        event.and(isLiquid);
+
+        assertSame(isLiquid, event.predicate);
+        assertTrue(event.isCacheable());
+    }
+
+    @Test
+    public void testConditionsGetCombined() {
+        GetBlockPredicateEvent event = new GetBlockPredicateEvent();
+
+        event.and(isLiquid);
+        event.and(isPenetrable);
+
+        assertTrue(event.predicate.test(createBlock(true, true)));
+        assertFalse(event.predicate.test(createBlock(true, false)));
+        assertFalse(event.predicate.test(createBlock(false, true)));
+        assertTrue(event.isCacheable());
+    }
+
+    @Test
+    public void testNotCacheableCondition() {
+        GetBlockPredicateEvent event = new GetBlockPredicateEvent();
+
+        event.and(isLiquid);
+        event.andNotCacheable(isPenetrable);
+
+        assertFalse(event.predicate.test(createBlock(true, false)));
+        assertFalse(event.isCacheable());
+    }
+
+    @Test
+    public void testDirectAssignmentIsNotCacheable() {
+        GetBlockPredicateEvent event = new GetBlockPredicateEvent();
+
+        event.predicate = isLiquid;
+        assertFalse(event.isCacheable());
+
+        // a later handler using and() doesn't make the result cacheable again
+        event.and(isPenetrable);
+        assertFalse(event.isCacheable());
+    }
+
+    private static Block createBlock(boolean liquid, boolean penetrable) {
+        Block block = new Block();
+        block.setLiquid(liquid);
+        block.setPenetrable(penetrable);
+        return block;
+    }
+}
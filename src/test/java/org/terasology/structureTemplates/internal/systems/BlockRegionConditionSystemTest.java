@@ -0,0 +1,83 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.structureTemplates.components.BlockPredicateComponent;
+import org.terasology.structureTemplates.components.CheckBlockRegionConditionComponent.BlockRegionConditionCheck;
+import org.terasology.structureTemplates.components.RequiredBlockPropertiesComponent;
+import org.terasology.structureTemplates.internal.systems.BlockRegionConditionSystem.CachedCondition;
+import org.terasology.structureTemplates.internal.systems.BlockRegionConditionSystem.CheckStatistics;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for {@link BlockRegionConditionSystem}.
+ */
+public class BlockRegionConditionSystemTest {
+
+    @Test
+    public void testCachedConditionMatchesUnchangedPrefab() {
+        List<Object> prefabComponents = Lists.newArrayList(new BlockPredicateComponent(),
+            new RequiredBlockPropertiesComponent());
+
+        CachedCondition cachedCondition = new CachedCondition(prefabComponents, EntityRef.NULL);
+
+        assertTrue(cachedCondition.isCreatedFrom(prefabComponents));
+        assertTrue(cachedCondition.isCreatedFrom(Lists.newArrayList(prefabComponents)));
+    }
+
+    @Test
+    public void testCachedConditionGetsInvalidatedByReload() {
+        BlockPredicateComponent predicateComponent = new BlockPredicateComponent();
+        RequiredBlockPropertiesComponent propertiesComponent = new RequiredBlockPropertiesComponent();
+        CachedCondition cachedCondition = new CachedCondition(
+            Lists.newArrayList(predicateComponent, propertiesComponent), EntityRef.NULL);
+
+        // A reload replaces the component instances, even if their content is equal
+        assertFalse(cachedCondition.isCreatedFrom(Lists.newArrayList(predicateComponent,
+            new RequiredBlockPropertiesComponent())));
+        // A reload can add or remove components
+        assertFalse(cachedCondition.isCreatedFrom(Lists.newArrayList(predicateComponent)));
+        assertFalse(cachedCondition.isCreatedFrom(Lists.newArrayList(predicateComponent, propertiesComponent,
+            new RequiredBlockPropertiesComponent())));
+    }
+
+    @Test
+    public void testSmallChecksComeFirst() {
+        CheckStatistics statistics = new CheckStatistics(Lists.newArrayList(
+            createCheck(new BlockRegion(0, 0, 0, 9, 9, 9)),
+            createCheck(new BlockRegion(0, 0, 0, 0, 0, 0)),
+            createCheck(new BlockRegion(0, 0, 0, 1, 1, 1))));
+
+        assertArrayEquals(new int[]{1, 2, 0}, statistics.getCheckOrder());
+    }
+
+    @Test
+    public void testFailedCheckComesFirst() {
+        CheckStatistics statistics = new CheckStatistics(Lists.newArrayList(
+            createCheck(new BlockRegion(0, 0, 0, 0, 0, 0)),
+            createCheck(new BlockRegion(0, 0, 0, 9, 9, 9))));
+
+        statistics.recordResult(0, true);
+        statistics.recordResult(1, false);
+        assertArrayEquals(new int[]{1, 0}, statistics.getCheckOrder());
+
+        statistics.recordResult(1, true);
+        statistics.recordResult(0, false);
+        assertArrayEquals(new int[]{0, 1}, statistics.getCheckOrder());
+    }
+
+    private static BlockRegionConditionCheck createCheck(BlockRegion region) {
+        BlockRegionConditionCheck check = new BlockRegionConditionCheck();
+        check.region = region;
+        return check;
+    }
+}
@@ -0,0 +1,145 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.structureTemplates.components.BudgetedPlacementAlgorithmComponent;
+import org.terasology.structureTemplates.internal.systems.BudgetedStructureSpawnServerSystem.SpawnJob;
+import org.terasology.structureTemplates.util.BlockRegionTransform;
+import org.terasology.structureTemplates.util.RegionBlockMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for {@link BudgetedStructureSpawnServerSystem}.
+ */
+public class BudgetedStructureSpawnServerSystemTest {
+    private static final LongSupplier FROZEN_CLOCK = () -> 0;
+
+    private Block block;
+    private Map<Vector3ic, Block> placedBlocks;
+    private List<Integer> sliceSizes;
+    private Consumer<Map<Vector3ic, Block>> blockSetter;
+
+    @BeforeEach
+    public void prepare() {
+        block = new Block();
+        block.setUri(new BlockUri("a:a"));
+        placedBlocks = new HashMap<>();
+        sliceSizes = new ArrayList<>();
+        blockSetter = slice -> {
+            sliceSizes.add(slice.size());
+            placedBlocks.putAll(slice);
+        };
+    }
+
+    @Test
+    public void testBlockBudgetSpreadsPlacementOverTicks() {
+        // 2500 blocks
+        SpawnJob job = createJob(new BlockRegion(0, 0, 0, 49, 0, 49), 0, 1000, 5);
+
+        assertFalse(job.placeBlocks(blockSetter, FROZEN_CLOCK));
+        assertEquals(1000, placedBlocks.size());
+        assertFalse(job.placeBlocks(blockSetter, FROZEN_CLOCK));
+        assertEquals(2000, placedBlocks.size());
+        assertTrue(job.placeBlocks(blockSetter, FROZEN_CLOCK));
+        assertEquals(2500, placedBlocks.size());
+        assertEquals(2500, job.getPlacedBlockCount());
+    }
+
+    @Test
+    public void testSlicesAreLimited() {
+        SpawnJob job = createJob(new BlockRegion(0, 0, 0, 49, 0, 49), 0, 20000, 5);
+
+        assertTrue(job.placeBlocks(blockSetter, FROZEN_CLOCK));
+
+        int expectedLastSlice = 2500 - 2 * BudgetedStructureSpawnServerSystem.BLOCKS_PER_SLICE;
+        assertEquals(List.of(BudgetedStructureSpawnServerSystem.BLOCKS_PER_SLICE,
+            BudgetedStructureSpawnServerSystem.BLOCKS_PER_SLICE, expectedLastSlice), sliceSizes);
+    }
+
+    @Test
+    public void testTimeBudgetStopsPlacementBetweenSlices() {
+        SpawnJob job = createJob(new BlockRegion(0, 0, 0, 49, 0, 49), 0, 20000, 5);
+        long[] time = {0};
+        // each slice takes 3 milliseconds
+        Consumer<Map<Vector3ic, Block>> slowBlockSetter = slice -> {
+            blockSetter.accept(slice);
+            time[0] += 3;
+        };
+
+        assertFalse(job.placeBlocks(slowBlockSetter, () -> time[0]));
+
+        assertEquals(2 * BudgetedStructureSpawnServerSystem.BLOCKS_PER_SLICE, placedBlocks.size());
+    }
+
+    @Test
+    public void testResumedJobSkipsPlacedBlocks() {
+        BlockRegion region = new BlockRegion(0, 0, 0, 9, 9, 9);
+        SpawnJob originalJob = createJob(region, 0, 400, 5);
+        originalJob.placeBlocks(blockSetter, FROZEN_CLOCK);
+        Map<Vector3ic, Block> blocksOfFirstTick = new HashMap<>(placedBlocks);
+        placedBlocks.clear();
+
+        SpawnJob resumedJob = createJob(region, originalJob.getPlacedBlockCount(), 1000, 5);
+        assertTrue(resumedJob.placeBlocks(blockSetter, FROZEN_CLOCK));
+
+        assertEquals(600, placedBlocks.size());
+        for (Vector3ic position : blocksOfFirstTick.keySet()) {
+            assertFalse(placedBlocks.containsKey(position));
+        }
+    }
+
+    @Test
+    public void testNextJobStartsInNextTickWithItsOwnBudget() {
+        BudgetedStructureSpawnServerSystem system = new BudgetedStructureSpawnServerSystem();
+        SpawnJob smallJob = createJob(new BlockRegion(0, 0, 0, 9, 0, 9), 0, 1000, 5);
+        SpawnJob largeJob = createJob(new BlockRegion(100, 0, 0, 149, 0, 49), 0, 300, 5);
+        system.addJob(smallJob);
+        system.addJob(largeJob);
+
+        assertSame(smallJob, system.placeBlocksOfNextJob(blockSetter, FROZEN_CLOCK));
+        // the rest of the budget of the small job doesn't get used for the large job
+        assertEquals(100, placedBlocks.size());
+
+        assertNull(system.placeBlocksOfNextJob(blockSetter, FROZEN_CLOCK));
+        assertEquals(100 + 300, placedBlocks.size());
+        assertEquals(300, largeJob.getPlacedBlockCount());
+    }
+
+    @Test
+    public void testNoJob() {
+        BudgetedStructureSpawnServerSystem system = new BudgetedStructureSpawnServerSystem();
+
+        assertNull(system.placeBlocksOfNextJob(blockSetter, FROZEN_CLOCK));
+        assertTrue(placedBlocks.isEmpty());
+    }
+
+    private SpawnJob createJob(BlockRegion region, int placedBlockCount, int maxBlocksPerTick,
+                               long maxMillisecondsPerTick) {
+        RegionBlockMap blocksToPlace = new RegionBlockMap();
+        blocksToPlace.fillRegion(region, block);
+        BudgetedPlacementAlgorithmComponent budgetComponent = new BudgetedPlacementAlgorithmComponent();
+        budgetComponent.maxBlocksPerTick = maxBlocksPerTick;
+        budgetComponent.maxMillisecondsPerTick = maxMillisecondsPerTick;
+        return new SpawnJob(EntityRef.NULL, EntityRef.NULL, BlockRegionTransform.getTransformationThatDoesNothing(),
+            blocksToPlace, placedBlockCount, budgetComponent);
+    }
+}
@@ -0,0 +1,70 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.structureTemplates.components.ProtectedRegionsComponent;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for {@link ProtectedRegionIndexSystem}. The system runs on clients as well, where replicated
+ * {@link ProtectedRegionsComponent}s reach it via the same lifecycle events.
+ */
+public class ProtectedRegionIndexSystemTest {
+
+    private ProtectedRegionIndexSystem system;
+    private EntityRef entity = EntityRef.NULL;
+
+    @BeforeEach
+    public void prepare() {
+        system = new ProtectedRegionIndexSystem();
+    }
+
+    @Test
+    public void testActivatedRegionsGetIndexed() {
+        assertTrue(system.isEmpty());
+
+        system.onProtectedRegionsActivated(null, entity, createComponent(new BlockRegion(0, 0, 0, 3, 3, 3)));
+
+        assertFalse(system.isEmpty());
+        assertTrue(system.isProtected(3, 3, 3));
+        assertFalse(system.isProtected(4, 3, 3));
+        assertTrue(system.intersectsProtectedRegion(new BlockRegion(-5, 2, 2, 0, 2, 2)));
+    }
+
+    @Test
+    public void testChangedRegionsReplaceOldOnes() {
+        system.onProtectedRegionsActivated(null, entity, createComponent(new BlockRegion(0, 0, 0, 3, 3, 3)));
+
+        system.onProtectedRegionsChanged(null, entity, createComponent(new BlockRegion(0, 0, 0, 3, 3, 3),
+            new BlockRegion(40, 0, 0, 41, 1, 1)));
+        assertTrue(system.isProtected(0, 0, 0));
+        assertTrue(system.isProtected(41, 1, 1));
+
+        system.onProtectedRegionsChanged(null, entity, createComponent(new BlockRegion(40, 0, 0, 41, 1, 1)));
+        assertFalse(system.isProtected(0, 0, 0));
+        assertTrue(system.isProtected(40, 0, 0));
+    }
+
+    @Test
+    public void testDeactivatedRegionsGetRemoved() {
+        system.onProtectedRegionsActivated(null, entity, createComponent(new BlockRegion(0, 0, 0, 3, 3, 3)));
+
+        system.onBeforeDeactivateProtectedRegions(null, entity);
+
+        assertTrue(system.isEmpty());
+        assertFalse(system.isProtected(0, 0, 0));
+    }
+
+    private static ProtectedRegionsComponent createComponent(BlockRegion... regions) {
+        ProtectedRegionsComponent component = new ProtectedRegionsComponent();
+        component.regions = Lists.newArrayList(regions);
+        return component;
+    }
+}
@@ -0,0 +1,30 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.terasology.structureTemplates.internal.systems.ProtectionExpirySystem.BUCKET_DURATION_MS;
+
+/**
+ * Test for {@link ProtectionExpirySystem}.
+ */
+public class ProtectionExpirySystemTest {
+
+    @Test
+    public void testBucketStartsAfterExpiryTime() {
+        for (long expiryTime : new long[]{0, 1, BUCKET_DURATION_MS - 1, BUCKET_DURATION_MS, 5 * BUCKET_DURATION_MS + 7}) {
+            long bucketStart = ProtectionExpirySystem.getBucket(expiryTime) * BUCKET_DURATION_MS;
+            assertTrue(bucketStart > expiryTime);
+            assertTrue(bucketStart - expiryTime <= BUCKET_DURATION_MS);
+        }
+    }
+
+    @Test
+    public void testExpiryTimesWithinOneMinuteShareBucket() {
+        assertEquals(ProtectionExpirySystem.getBucket(BUCKET_DURATION_MS),
+            ProtectionExpirySystem.getBucket(2 * BUCKET_DURATION_MS - 1));
+    }
+}
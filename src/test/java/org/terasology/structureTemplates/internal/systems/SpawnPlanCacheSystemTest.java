@@ -0,0 +1,79 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.internal.systems;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent.RegionToFill;
+import org.terasology.structureTemplates.util.BlockRegionTransform;
+import org.terasology.structureTemplates.util.CompiledSpawnPlan;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Test for {@link SpawnPlanCacheSystem}.
+ */
+public class SpawnPlanCacheSystemTest {
+
+    private SpawnPlanCacheSystem system;
+    private SpawnBlockRegionsComponent component;
+
+    @BeforeEach
+    public void prepare() {
+        system = new SpawnPlanCacheSystem();
+        Block block = new Block();
+        block.setUri(new BlockUri("a:a"));
+        RegionToFill regionToFill = new RegionToFill();
+        regionToFill.region = new BlockRegion(0, 0, 0, 2, 0, 1);
+        regionToFill.blockType = block;
+        component = new SpawnBlockRegionsComponent();
+        component.regionsToFill = new ArrayList<>();
+        component.regionsToFill.add(regionToFill);
+    }
+
+    @Test
+    public void testPlanGetsReusedForSameRotation() {
+        CompiledSpawnPlan plan = system.getPlan(component, createTransform(Side.LEFT, new Vector3i(1, 2, 3)));
+
+        assertSame(plan, system.getPlan(component, createTransform(Side.LEFT, new Vector3i(-50, 0, 9))));
+    }
+
+    @Test
+    public void testPlansPerRotation() {
+        CompiledSpawnPlan leftPlan = system.getPlan(component, createTransform(Side.LEFT, new Vector3i()));
+        CompiledSpawnPlan backPlan = system.getPlan(component, createTransform(Side.BACK, new Vector3i()));
+
+        assertNotSame(leftPlan, backPlan);
+        assertEquals(createTransform(Side.LEFT, new Vector3i()).getCounterClockWiseHorizontal90DegreeRotations(),
+            leftPlan.getCounterClockWiseHorizontal90DegreeRotations());
+        assertEquals(createTransform(Side.BACK, new Vector3i()).getCounterClockWiseHorizontal90DegreeRotations(),
+            backPlan.getCounterClockWiseHorizontal90DegreeRotations());
+    }
+
+    @Test
+    public void testChangedComponentGetsCompiledAgain() {
+        CompiledSpawnPlan plan = system.getPlan(component, createTransform(Side.FRONT, new Vector3i()));
+        component.regionsToFill.get(0).region = new BlockRegion(0, 0, 0, 5, 5, 5);
+
+        system.onSpawnBlockRegionsChanged(null, EntityRef.NULL, component);
+        CompiledSpawnPlan newPlan = system.getPlan(component, createTransform(Side.FRONT, new Vector3i()));
+
+        assertNotSame(plan, newPlan);
+        assertEquals(new BlockRegion(0, 0, 0, 5, 5, 5), newPlan.getBoundingBox(new Vector3i()));
+    }
+
+    private static BlockRegionTransform createTransform(Side side, Vector3i offset) {
+        return BlockRegionTransform.createRotationThenMovement(Side.FRONT, side, offset);
+    }
+}
@@ -0,0 +1,76 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.block.Block;
+
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link BlockIdPredicate}.
+ */
+public class BlockIdPredicateTest {
+
+    private Block liquidBlock;
+    private Block solidBlock;
+    private int testCount;
+    private Predicate<Block> isLiquid;
+
+    @BeforeEach
+    public void prepare() {
+        liquidBlock = createBlock(1, true);
+        solidBlock = createBlock(3, false);
+        testCount = 0;
+        isLiquid = block -> {
+            testCount++;
+            return block.isLiquid();
+        };
+    }
+
+    @Test
+    public void testCompiledBlocksAreTestedInAdvance() {
+        BlockIdPredicate predicate = BlockIdPredicate.compile(isLiquid, Lists.newArrayList(liquidBlock, solidBlock));
+        assertEquals(2, testCount);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(predicate.test(liquidBlock));
+            assertFalse(predicate.test(solidBlock));
+        }
+        assertEquals(2, testCount);
+    }
+
+    @Test
+    public void testUnknownBlocksUseFallback() {
+        BlockIdPredicate predicate = BlockIdPredicate.compile(isLiquid, Lists.newArrayList(liquidBlock, solidBlock));
+
+        // a block registered later, with an id beyond the compiled ones
+        assertTrue(predicate.test(createBlock(200, true)));
+        // a block that got registered with an id that a compiled block had before
+        assertTrue(predicate.test(createBlock(3, true)));
+        // an id in between compiled ids
+        assertFalse(predicate.test(createBlock(2, false)));
+        assertEquals(5, testCount);
+    }
+
+    @Test
+    public void testCompileWithoutBlocks() {
+        BlockIdPredicate predicate = BlockIdPredicate.compile(isLiquid, Lists.newArrayList());
+
+        assertTrue(predicate.test(liquidBlock));
+        assertFalse(predicate.test(solidBlock));
+    }
+
+    private static Block createBlock(int id, boolean liquid) {
+        Block block = new Block();
+        block.setId((short) id);
+        block.setLiquid(liquid);
+        return block;
+    }
+}
@@ -0,0 +1,70 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.block.BlockRegion;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link BlockRegionIndex}.
+ */
+public class BlockRegionIndexTest {
+
+    @Test
+    public void testContainsAcrossChunkBorders() {
+        BlockRegionIndex<String> index = new BlockRegionIndex<>();
+        index.add("a", new BlockRegion(-40, -5, 20, 40, 70, 35));
+
+        assertTrue(index.contains(-40, -5, 20));
+        assertTrue(index.contains(40, 70, 35));
+        assertTrue(index.contains(0, 0, 33));
+        assertFalse(index.contains(41, 0, 30));
+        assertFalse(index.contains(0, 0, 36));
+    }
+
+    @Test
+    public void testIntersects() {
+        BlockRegionIndex<String> index = new BlockRegionIndex<>();
+        index.add("a", new BlockRegion(0, 0, 0, 10, 10, 10));
+
+        assertTrue(index.intersects(new BlockRegion(10, 10, 10, 100, 100, 100)));
+        assertFalse(index.intersects(new BlockRegion(11, 0, 0, 20, 10, 10)));
+        assertFalse(index.intersects(new BlockRegion(-100, -100, -100, -1, 5, 5)));
+    }
+
+    @Test
+    public void testIntersectingRegionsAreReportedOnce() {
+        BlockRegionIndex<String> index = new BlockRegionIndex<>();
+        index.add("a", new BlockRegion(0, 0, 0, 100, 100, 100));
+        index.add("b", new BlockRegion(200, 0, 0, 210, 10, 10));
+
+        assertEquals(1, index.getIntersectingRegions(new BlockRegion(-50, -50, -50, 150, 150, 150)).size());
+        assertEquals(2, index.getIntersectingRegions(new BlockRegion(0, 0, 0, 300, 0, 0)).size());
+    }
+
+    @Test
+    public void testRemoveAll() {
+        BlockRegionIndex<String> index = new BlockRegionIndex<>();
+        index.add("a", new BlockRegion(0, 0, 0, 40, 10, 10));
+        index.add("a", new BlockRegion(100, 0, 0, 110, 10, 10));
+        index.add("b", new BlockRegion(5, 5, 5));
+
+        index.removeAll("a");
+        assertFalse(index.contains(0, 0, 0));
+        assertFalse(index.contains(105, 5, 5));
+        assertTrue(index.contains(5, 5, 5));
+
+        index.replaceAll("b", Arrays.asList(new BlockRegion(50, 50, 50)));
+        assertFalse(index.contains(5, 5, 5));
+        assertTrue(index.contains(50, 50, 50));
+
+        index.removeAll("b");
+        assertTrue(index.isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.block.BlockRegion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link BlockRegionSet}.
+ */
+public class BlockRegionSetTest {
+
+    @Test
+    public void testAddMergesNeighbours() {
+        BlockRegionSet set = new BlockRegionSet(Collections.singletonList(new BlockRegion(0, 0, 0, 2, 2, 2)));
+
+        assertTrue(set.add(new BlockRegion(3, 0, 0, 3, 2, 2)));
+
+        assertEquals(1, set.getRegions().size());
+        assertEquals(new BlockRegion(0, 0, 0, 3, 2, 2), set.getRegions().get(0));
+    }
+
+    @Test
+    public void testAddOfContainedRegionChangesNothing() {
+        BlockRegionSet set = new BlockRegionSet(Collections.singletonList(new BlockRegion(0, 0, 0, 2, 2, 2)));
+
+        assertFalse(set.add(new BlockRegion(1, 1, 1)));
+        assertEquals(1, set.getRegions().size());
+    }
+
+    @Test
+    public void testRemoveAndAddAgain() {
+        BlockRegion box = new BlockRegion(0, 0, 0, 4, 4, 4);
+        BlockRegionSet set = new BlockRegionSet(Collections.singletonList(box));
+
+        assertTrue(set.remove(new BlockRegion(2, 2, 2)));
+        assertEquals(box.volume() - 1, positionsOf(set).size());
+        assertFalse(set.contains(2, 2, 2));
+        assertTrue(set.contains(2, 2, 1));
+
+        assertTrue(set.add(new BlockRegion(2, 2, 2)));
+        assertEquals(box.volume(), positionsOf(set).size());
+    }
+
+    @Test
+    public void testRegionsDoNotOverlapAfterPartialAdd() {
+        BlockRegionSet set = new BlockRegionSet(Collections.singletonList(new BlockRegion(0, 0, 0, 3, 3, 3)));
+
+        set.add(new BlockRegion(2, 2, 2, 5, 5, 5));
+
+        int volumeSum = 0;
+        for (BlockRegion region : set.getRegions()) {
+            volumeSum += region.volume();
+        }
+        assertEquals(64 + 64 - 8, volumeSum);
+        assertEquals(volumeSum, positionsOf(set).size());
+    }
+
+    private static Set<Vector3ic> positionsOf(BlockRegionSet set) {
+        List<BlockRegion> regions = new ArrayList<>(set.getRegions());
+        return new HashSet<>(RegionMergeUtil.positionsOfRegions(regions));
+    }
+}
@@ -0,0 +1,90 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.block.Block;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for {@link BlockTransformTable}.
+ */
+public class BlockTransformTableTest {
+
+    /**
+     * The blocks that the rotation function of the table returned, per block and number of rotations.
+     */
+    private Map<Block, Block[]> rotatedBlocks;
+    private int rotationCount;
+    private BlockTransformTable table;
+
+    @BeforeEach
+    public void prepare() {
+        rotatedBlocks = new IdentityHashMap<>();
+        rotationCount = 0;
+        table = new BlockTransformTable((block, rotations) -> {
+            rotationCount++;
+            Block[] blocks = rotatedBlocks.computeIfAbsent(block, key -> new Block[4]);
+            blocks[rotations] = createBlock(1000);
+            return blocks[rotations];
+        });
+    }
+
+    @Test
+    public void testRotations() {
+        Block block = createBlock(5);
+
+        Block rotatedOnce = table.transformBlock(block, 1);
+
+        assertSame(rotatedBlocks.get(block)[1], rotatedOnce);
+        assertSame(rotatedBlocks.get(block)[0], table.transformBlock(block, 0));
+        assertSame(rotatedBlocks.get(block)[3], table.transformBlock(block, -1));
+        assertSame(rotatedBlocks.get(block)[0], table.transformBlock(block, 4));
+        // All rotations of a block get computed together, only once
+        assertEquals(4, rotationCount);
+    }
+
+    @Test
+    public void testBlockIdsAboveInitialSize() {
+        Block block = createBlock(4000);
+
+        assertSame(table.transformBlock(block, 2), table.transformBlock(block, 2));
+        assertSame(rotatedBlocks.get(block)[2], table.transformBlock(block, 2));
+        assertEquals(4, rotationCount);
+    }
+
+    @Test
+    public void testReRegisteredIdGetsComputedAgain() {
+        Block oldBlock = createBlock(5);
+        table.transformBlock(oldBlock, 1);
+
+        Block newBlock = createBlock(5);
+        Block rotatedNewBlock = table.transformBlock(newBlock, 1);
+
+        assertSame(rotatedBlocks.get(newBlock)[1], rotatedNewBlock);
+        assertEquals(8, rotationCount);
+    }
+
+    @Test
+    public void testClearForgetsEntries() {
+        Block block = createBlock(5);
+        table.transformBlock(block, 1);
+
+        table.clear();
+        table.transformBlock(block, 1);
+
+        assertEquals(8, rotationCount);
+    }
+
+    private static Block createBlock(int id) {
+        Block block = new Block();
+        block.setId((short) id);
+        return block;
+    }
+}
@@ -0,0 +1,125 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.math.Side;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent;
+import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent.RegionToFill;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for {@link CompiledSpawnPlan}.
+ */
+public class CompiledSpawnPlanTest {
+    private static final Side[] HORIZONTAL_SIDES = {Side.FRONT, Side.LEFT, Side.BACK, Side.RIGHT};
+
+    private Block blockA;
+    private Block air;
+    private SpawnBlockRegionsComponent component;
+
+    @BeforeEach
+    public void prepare() {
+        blockA = new Block();
+        blockA.setUri(new BlockUri("a:a"));
+        air = new Block();
+        air.setUri(BlockManager.AIR_ID);
+        component = new SpawnBlockRegionsComponent();
+        component.regionsToFill = new ArrayList<>();
+        component.regionsToFill.add(createRegion(blockA, new BlockRegion(1, 0, 2, 3, 1, 5)));
+        component.regionsToFill.add(createRegion(air, new BlockRegion(-4, 0, 0, -1, 2, 0)));
+    }
+
+    @Test
+    public void testRegionsMatchTransformForAllRotations() {
+        Vector3i offset = new Vector3i(100, 20, -300);
+        for (Side side : HORIZONTAL_SIDES) {
+            BlockRegionTransform transform = BlockRegionTransform.createRotationThenMovement(Side.FRONT, side, offset);
+
+            CompiledSpawnPlan plan = CompiledSpawnPlan.compile(component, transform);
+
+            assertEquals(transform.getCounterClockWiseHorizontal90DegreeRotations(),
+                plan.getCounterClockWiseHorizontal90DegreeRotations());
+            List<BlockRegion> regions = new ArrayList<>();
+            List<Block> blocks = new ArrayList<>();
+            plan.forEachRegion(offset, false, (region, block) -> {
+                regions.add(region);
+                blocks.add(block);
+            });
+            assertEquals(2, regions.size());
+            for (int i = 0; i < regions.size(); i++) {
+                RegionToFill regionToFill = component.regionsToFill.get(i);
+                assertEquals(transform.transformRegion(regionToFill.region), regions.get(i));
+                assertSame(transform.transformBlock(regionToFill.blockType), blocks.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testOffsetOfCompiledTransformIsIgnored() {
+        BlockRegionTransform transform = BlockRegionTransform.createRotationThenMovement(Side.FRONT, Side.LEFT,
+            new Vector3i(7, 8, 9));
+        Vector3i spawnOffset = new Vector3i(-1, 2, 3);
+        BlockRegionTransform spawnTransform = BlockRegionTransform.createRotationThenMovement(Side.FRONT, Side.LEFT,
+            spawnOffset);
+
+        CompiledSpawnPlan plan = CompiledSpawnPlan.compile(component, transform);
+
+        List<BlockRegion> regions = new ArrayList<>();
+        plan.forEachRegion(spawnOffset, false, (region, block) -> regions.add(region));
+        assertEquals(spawnTransform.transformRegion(component.regionsToFill.get(0).region), regions.get(0));
+    }
+
+    @Test
+    public void testIgnoreAir() {
+        CompiledSpawnPlan plan = CompiledSpawnPlan.compile(component,
+            BlockRegionTransform.getTransformationThatDoesNothing());
+
+        List<Block> blocks = new ArrayList<>();
+        plan.forEachRegion(new Vector3i(), true, (region, block) -> blocks.add(block));
+
+        assertEquals(1, blocks.size());
+        assertSame(blockA, blocks.get(0));
+    }
+
+    @Test
+    public void testBoundingBox() {
+        Vector3i offset = new Vector3i(10, 0, 0);
+        BlockRegionTransform transform = BlockRegionTransform.createRotationThenMovement(Side.FRONT, Side.BACK,
+            offset);
+
+        CompiledSpawnPlan plan = CompiledSpawnPlan.compile(component, transform);
+
+        BlockRegion expected = transform.transformRegion(new BlockRegion(-4, 0, 0, 3, 2, 5));
+        assertEquals(expected, plan.getBoundingBox(offset));
+    }
+
+    @Test
+    public void testBoundingBoxOfEmptyPlan() {
+        component.regionsToFill.clear();
+
+        CompiledSpawnPlan plan = CompiledSpawnPlan.compile(component,
+            BlockRegionTransform.getTransformationThatDoesNothing());
+
+        assertNull(plan.getBoundingBox(new Vector3i()));
+    }
+
+    private static RegionToFill createRegion(Block block, BlockRegion region) {
+        RegionToFill regionToFill = new RegionToFill();
+        regionToFill.region = region;
+        regionToFill.blockType = block;
+        return regionToFill;
+    }
+}
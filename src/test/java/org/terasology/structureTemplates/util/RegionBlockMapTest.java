@@ -0,0 +1,81 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.structureTemplates.util;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.engine.world.chunks.Chunks;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for {@link RegionBlockMap}.
+ */
+public class RegionBlockMapTest {
+    private Block blockA;
+    private Block blockB;
+
+    @BeforeEach
+    public void prepare() {
+        blockA = new Block();
+        blockA.setUri(new BlockUri("a:a"));
+        blockB = new Block();
+        blockB.setUri(new BlockUri("a:b"));
+    }
+
+    @Test
+    public void testRegionAcrossChunkBorderMatchesHashMap() {
+        BlockRegion region = new BlockRegion(-2, 0, Chunks.SIZE_Z - 2, 1, 1, Chunks.SIZE_Z + 1);
+        RegionBlockMap map = new RegionBlockMap();
+        map.fillRegion(region, blockA);
+
+        assertEquals(expandedMap(region, blockA), new HashMap<>(map));
+        assertEquals(region.volume(), map.size());
+    }
+
+    @Test
+    public void testLaterRegionWins() {
+        BlockRegion regionA = new BlockRegion(0, 0, 0, 3, 3, 3);
+        BlockRegion regionB = new BlockRegion(2, 2, 2, 5, 5, 5);
+        RegionBlockMap map = new RegionBlockMap();
+        map.fillRegion(regionA, blockA);
+        map.fillRegion(regionB, blockB);
+
+        Map<Vector3ic, Block> expected = expandedMap(regionA, blockA);
+        expected.putAll(expandedMap(regionB, blockB));
+        assertEquals(expected, new HashMap<>(map));
+        assertEquals(expected.size(), map.size());
+        assertEquals(blockB, map.get(new Vector3i(3, 3, 3)));
+        assertEquals(blockA, map.get(new Vector3i(0, 0, 0)));
+        assertNull(map.get(new Vector3i(6, 6, 6)));
+    }
+
+    @Test
+    public void testFullyShadowedRegionIsSkipped() {
+        BlockRegion regionA = new BlockRegion(1, 1, 1, 2, 2, 2);
+        BlockRegion regionB = new BlockRegion(0, 0, 0, 3, 3, 3);
+        RegionBlockMap map = new RegionBlockMap();
+        map.fillRegion(regionA, blockA);
+        map.fillRegion(regionB, blockB);
+
+        assertEquals(expandedMap(regionB, blockB), new HashMap<>(map));
+        assertEquals(regionB.volume(), map.size());
+    }
+
+    private static Map<Vector3ic, Block> expandedMap(BlockRegion region, Block block) {
+        Map<Vector3ic, Block> result = new HashMap<>();
+        for (Vector3ic pos : region) {
+            result.put(new Vector3i(pos), block);
+        }
+        return result;
+    }
+}
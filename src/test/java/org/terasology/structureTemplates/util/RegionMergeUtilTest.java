@@ -3,6 +3,7 @@
 package org.terasology.structureTemplates.util;
 
 import org.joml.Vector3i;
+import org.joml.Vector3ic;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.terasology.engine.world.block.Block;
@@ -11,9 +12,15 @@ import org.terasology.engine.world.block.BlockUri;
 import org.terasology.structureTemplates.components.SpawnBlockRegionsComponent.RegionToFill;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests for {@link   RegionMergeUtil}. Tests exemplay the region merging method mergeRegionsByX.
@@ -192,6 +199,75 @@ public class RegionMergeUtilTest {
         assertRegionListsEqual(expectedRegions, regions);
     }
 
+    @Test
+    public void testMergeRegionsToFillMergesCubeIntoOneRegion() {
+        List<RegionToFill> regions = new ArrayList<>();
+        for (Vector3ic position : new BlockRegion(0, 0, 0, 2, 2, 2)) {
+            regions.add(createRegion(blockA, position.x(), position.y(), position.z(),
+                position.x(), position.y(), position.z()));
+        }
+
+        RegionMergeUtil.mergeRegionsToFill(regions);
+
+        List<RegionToFill> expectedRegions = new ArrayList<>();
+        expectedRegions.add(createRegion(blockA, 0, 0, 0, 2, 2, 2));
+        assertRegionListsEqual(expectedRegions, regions);
+    }
+
+    @Test
+    public void testMergeRegionsToFillKeepsBlocksOfHollowCube() {
+        List<RegionToFill> regions = new ArrayList<>();
+        for (Vector3ic position : new BlockRegion(0, 0, 0, 3, 3, 3)) {
+            boolean inside = position.x() % 3 != 0 && position.y() % 3 != 0 && position.z() % 3 != 0;
+            Block block = position.y() == 0 ? blockB : blockA;
+            if (!inside) {
+                regions.add(createRegion(block, position.x(), position.y(), position.z(),
+                    position.x(), position.y(), position.z()));
+            }
+        }
+        Map<Vector3ic, Block> expectedBlocks = blocksOf(regions);
+
+        List<RegionToFill> fastRegions = new ArrayList<>(regions);
+        RegionMergeUtil.mergeRegionsToFill(fastRegions, RegionMergeUtil.MergeMode.FAST);
+        List<RegionToFill> thoroughRegions = new ArrayList<>(regions);
+        RegionMergeUtil.mergeRegionsToFill(thoroughRegions, RegionMergeUtil.MergeMode.THOROUGH);
+
+        assertEquals(expectedBlocks, blocksOf(fastRegions));
+        assertEquals(expectedBlocks, blocksOf(thoroughRegions));
+        // The bottom layer, four walls and one region for the rest of the top layer
+        assertEquals(6, thoroughRegions.size());
+        assertTrue(thoroughRegions.size() <= fastRegions.size());
+    }
+
+    @Test
+    public void testMergePositionsIntoRegionsSplitsLShape() {
+        Set<Vector3i> positions = new HashSet<>();
+        for (int x = 0; x < 4; x++) {
+            positions.add(new Vector3i(x, 0, 0));
+        }
+        for (int z = 1; z < 4; z++) {
+            positions.add(new Vector3i(0, 0, z));
+        }
+
+        List<BlockRegion> regions = RegionMergeUtil.mergePositionsIntoRegions(positions);
+
+        assertEquals(2, regions.size());
+        assertEquals(positions, RegionMergeUtil.positionsOfRegions(regions));
+    }
+
+    /**
+     * @return the block per position. Fails if regions overlap.
+     */
+    private static Map<Vector3ic, Block> blocksOf(List<RegionToFill> regions) {
+        Map<Vector3ic, Block> blocks = new HashMap<>();
+        for (RegionToFill regionToFill : regions) {
+            for (Vector3ic position : regionToFill.region) {
+                assertNull(blocks.put(new Vector3i(position), regionToFill.blockType));
+            }
+        }
+        return blocks;
+    }
+
     private RegionToFill copyOf(RegionToFill r) {
         RegionToFill regionToFill = new RegionToFill();
         regionToFill.blockType = r.blockType;